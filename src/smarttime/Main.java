@@ -3,8 +3,9 @@ package smarttime;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import smarttime.config.AppConfig;
+import smarttime.ds.DaryTaskHeap;
 import smarttime.ds.TaskGraph;
-import smarttime.ds.TaskMinHeap;
 import smarttime.service.TaskService;
 import smarttime.ui.MainLayout;
 import smarttime.util.SampleDataLoader;
@@ -14,7 +15,7 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) {
         // 1) Create core data structures
-        TaskMinHeap heap = new TaskMinHeap(100); // initial capacity
+        DaryTaskHeap heap = new DaryTaskHeap(AppConfig.HEAP_INITIAL_CAPACITY, AppConfig.HEAP_ARITY);
         TaskGraph graph = new TaskGraph();
 
         // 2) Create the TaskService (central entry point for tasks)
@@ -1,5 +1,47 @@
 package smarttime.config;
 
+/**
+ * Application-wide tuning knobs.
+ */
 public class AppConfig {
 
+    /** Initial slot count of the recommendation heap (it grows as needed). */
+    public static final int HEAP_INITIAL_CAPACITY = 100;
+
+    /**
+     * Children per node in the recommendation heap. 2 is a classic binary
+     * heap; 8 cuts the tree height to a third and keeps each node's child
+     * keys within one cache line. HeapArityBenchmark measured 8 fastest or
+     * tied for insert, update and extractMin from 10k to 5M tasks.
+     */
+    public static final int HEAP_ARITY = 8;
+
+    /** Lists shorter than this are sorted on the calling thread. */
+    public static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+    /** Below this range size a parallel sort stops forking subtasks. */
+    public static final int PARALLEL_SORT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+    /**
+     * Study minutes available per calendar day. Critical-path analysis
+     * turns a due date into a deadline of (days from the planning start
+     * + 1) * this many minutes of work.
+     */
+    public static final int PLANNING_MINUTES_PER_DAY = 4 * 60;
+
+    /**
+     * Largest dependency graph for which a BitSet transitive closure is
+     * kept (two V-bit sets per task, 4 MB at this size). Bigger graphs
+     * answer reachability queries by traversal.
+     */
+    public static final int REACHABILITY_INDEX_MAX_VERTICES = 4096;
+
+    /** Undo (and redo) history length; older actions are forgotten. */
+    public static final int UNDO_MAX_ENTRIES = 1000;
+
+    /** Budget for the estimated memory retained by the undo history. */
+    public static final long UNDO_MAX_BYTES = 4L * 1024 * 1024;
+
+    private AppConfig() {
+    }
 }
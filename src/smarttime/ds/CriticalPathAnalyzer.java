@@ -0,0 +1,426 @@
+package smarttime.ds;
+
+import smarttime.model.Task;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Critical-path (CPM) analysis over the dependency DAG of a TaskGraph.
+ *
+ * Durations are estimatedMinutes of open tasks; completed (non-blocking)
+ * tasks take 0. Times are minutes of work from the planning start:
+ *  - earliest start ES(v) = max over prerequisites u of ES(u) + d(u)
+ *  - latest finish  LF(v) = min(due-date deadline of v, LS of dependents),
+ *    with the project length H as the limit when nothing else applies
+ *  - latest start   LS(v) = LF(v) - d(v), slack = LS(v) - ES(v)
+ * Negative slack means the task cannot meet some due date.
+ *
+ * LF is kept as min(bound(v), H - tail(v)): bound only follows due dates,
+ * tail is the longest chain of minutes after v. Neither depends on H, so
+ * a change far away that moves H does not touch every vertex.
+ *
+ * Values are computed once lazily (forward and backward pass over the
+ * graph's maintained topological order, O(V + E)) and afterwards updated
+ * incrementally: a changed duration or deadline, or an added or removed
+ * edge or task, seeds a worklist that is drained in topological order
+ * (forward values) and reverse order (backward values), so only vertices
+ * whose values really change are visited.
+ */
+public class CriticalPathAnalyzer {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final TaskGraph graph;
+    private final int minutesPerDay;
+    private long startDay;
+
+    // per vertex id
+    private int[] duration = new int[0];
+    private long[] deadline = new long[0];
+    private long[] earliestStart = new long[0];
+    private long[] tail = new long[0];     // longest chain of minutes after v
+    private long[] bound = new long[0];    // latest finish allowed by due dates
+    private int known;                     // vertices covered by the arrays
+
+    private boolean valid;                 // false until the first full pass
+    private long projectLength = -1;       // cached H, -1 when stale
+
+    private final Worklist forward = new Worklist(1);
+    private final Worklist backward = new Worklist(-1);
+
+    public CriticalPathAnalyzer(TaskGraph graph, LocalDate projectStart, int minutesPerDay) {
+        this.graph = graph;
+        this.minutesPerDay = minutesPerDay;
+        this.startDay = projectStart.toEpochDay();
+    }
+
+    /** Move the planning start; deadlines change, so values are recomputed. */
+    public void setProjectStart(LocalDate projectStart) {
+        startDay = projectStart.toEpochDay();
+        invalidate();
+    }
+
+    /** Drop all values; the next query recomputes them in one pass. */
+    public void invalidate() {
+        valid = false;
+    }
+
+    // CHANGE NOTIFICATIONS
+
+    /**
+     * A task was added, completed, re-opened, deleted or had its minutes or
+     * due date edited.
+     */
+    public void taskChanged(Task task) {
+        if (!valid) return;
+        int id = graph.idOf(task);
+        if (id < 0) return;
+        catchUp();
+        refresh(id);
+        propagate();
+    }
+
+    /**
+     * A task is about to be removed from the graph: its values are reset
+     * and its neighbours queued. They are recomputed (without the task's
+     * edges) by the next notification or query.
+     */
+    public void taskRemoving(Task task) {
+        if (!valid) return;
+        int id = graph.idOf(task);
+        if (id < 0) return;
+        catchUp();
+        propagate(); // settle earlier work while the graph still has the task
+        int degree = graph.outDegree(id);
+        for (int i = 0; i < degree; i++) forward.push(graph.outNeighbor(id, i));
+        degree = graph.inDegree(id);
+        for (int i = 0; i < degree; i++) backward.push(graph.inNeighbor(id, i));
+        clear(id);
+        projectLength = -1;
+    }
+
+    /** An edge prerequisite -> dependent was removed from the graph. */
+    public void dependencyRemoved(Task prerequisite, Task dependent) {
+        dependencyAdded(prerequisite, dependent);
+    }
+
+    /** An edge prerequisite -> dependent was added to the graph. */
+    public void dependencyAdded(Task prerequisite, Task dependent) {
+        if (!valid) return;
+        int u = graph.idOf(prerequisite);
+        int v = graph.idOf(dependent);
+        if (u < 0 || v < 0) return;
+        catchUp();
+        forward.push(v);
+        backward.push(u);
+        propagate();
+    }
+
+    // QUERIES (minutes from the planning start)
+
+    public long getEarliestStart(Task task) {
+        return earliestStart[validId(task)];
+    }
+
+    public long getLatestStart(Task task) {
+        int id = validId(task);
+        return latestFinish(id) - duration[id];
+    }
+
+    public long getSlack(Task task) {
+        int id = validId(task);
+        return latestFinish(id) - duration[id] - earliestStart[id];
+    }
+
+    /** Length H of the longest chain of minutes through the DAG. */
+    public long getProjectLength() {
+        ensureValid();
+        if (projectLength < 0) {
+            long h = 0;
+            for (int id = 0; id < known; id++) {
+                h = Math.max(h, earliestStart[id] + duration[id]);
+            }
+            projectLength = h;
+        }
+        return projectLength;
+    }
+
+    /**
+     * The longest chain of minutes through the open tasks, first task
+     * first. Every task on it has the smallest slack the schedule allows;
+     * delaying any of them delays the whole project.
+     */
+    public List<Task> getCriticalPath() {
+        long h = getProjectLength();
+        if (h == 0) return Collections.emptyList();
+
+        int current = -1;
+        for (int id = 0; id < known && current < 0; id++) {
+            if (earliestStart[id] + duration[id] == h) current = id;
+        }
+
+        List<Task> path = new ArrayList<>();
+        while (current >= 0) {
+            if (graph.isBlocking(current)) {
+                path.add(graph.taskAt(current));
+            }
+            int next = -1;
+            if (earliestStart[current] > 0) {
+                int degree = graph.inDegree(current);
+                for (int i = 0; i < degree && next < 0; i++) {
+                    int u = graph.inNeighbor(current, i);
+                    if (earliestStart[u] + duration[u] == earliestStart[current]) next = u;
+                }
+            }
+            current = next;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // INTERNALS
+
+    private int validId(Task task) {
+        ensureValid();
+        int id = graph.idOf(task);
+        if (id < 0) {
+            throw new IllegalArgumentException("Task is not in the dependency graph.");
+        }
+        return id;
+    }
+
+    private void ensureValid() {
+        if (!valid) {
+            recompute();
+        } else {
+            catchUp();
+            propagate();
+        }
+    }
+
+    private long latestFinish(int id) {
+        return Math.min(bound[id], getProjectLength() - tail[id]);
+    }
+
+    // full forward + backward pass over the maintained topological order
+    private void recompute() {
+        int n = graph.vertexCount();
+        ensureCapacity(n);
+        known = n;
+
+        for (int id = 0; id < n; id++) {
+            clear(id);
+        }
+        forward.clear();
+        backward.clear();
+        int[] order = graph.topologicalIds();
+        for (int v : order) {
+            duration[v] = durationOf(v);
+            deadline[v] = deadlineOf(v);
+        }
+        for (int v : order) {
+            earliestStart[v] = computeEarliestStart(v);
+        }
+        for (int i = order.length - 1; i >= 0; i--) {
+            int v = order[i];
+            tail[v] = computeTail(v);
+            bound[v] = computeBound(v);
+        }
+        valid = true;
+        projectLength = -1;
+    }
+
+    // vertices added since the last update start out isolated and empty
+    private void catchUp() {
+        int n = graph.vertexCount();
+        if (n == known) return;
+        ensureCapacity(n);
+        for (int id = known; id < n; id++) {
+            clear(id);
+        }
+        int first = known;
+        known = n;
+        // they may already have edges: recompute their own values too
+        for (int id = first; id < n; id++) {
+            forward.push(id);
+            backward.push(id);
+            refresh(id);
+        }
+    }
+
+    // values of an isolated, empty vertex
+    private void clear(int id) {
+        duration[id] = 0;
+        deadline[id] = NO_DEADLINE;
+        earliestStart[id] = 0;
+        tail[id] = 0;
+        bound[id] = NO_DEADLINE;
+    }
+
+    // re-read a task's duration and deadline and seed the worklists
+    private void refresh(int id) {
+        int d = durationOf(id);
+        long dl = deadlineOf(id);
+        if (d == duration[id] && dl == deadline[id]) return;
+
+        if (d != duration[id]) {
+            duration[id] = d;
+            projectLength = -1;
+            int degree = graph.outDegree(id);
+            for (int i = 0; i < degree; i++) forward.push(graph.outNeighbor(id, i));
+            degree = graph.inDegree(id);
+            for (int i = 0; i < degree; i++) backward.push(graph.inNeighbor(id, i));
+        }
+        deadline[id] = dl;
+        backward.push(id);
+    }
+
+    private void propagate() {
+        while (!forward.isEmpty()) {
+            int v = forward.poll();
+            long es = computeEarliestStart(v);
+            if (es == earliestStart[v]) continue;
+            earliestStart[v] = es;
+            projectLength = -1;
+            int degree = graph.outDegree(v);
+            for (int i = 0; i < degree; i++) forward.push(graph.outNeighbor(v, i));
+        }
+        while (!backward.isEmpty()) {
+            int v = backward.poll();
+            long t = computeTail(v);
+            long b = computeBound(v);
+            if (t == tail[v] && b == bound[v]) continue;
+            tail[v] = t;
+            bound[v] = b;
+            int degree = graph.inDegree(v);
+            for (int i = 0; i < degree; i++) backward.push(graph.inNeighbor(v, i));
+        }
+    }
+
+    private long computeEarliestStart(int v) {
+        long es = 0;
+        int degree = graph.inDegree(v);
+        for (int i = 0; i < degree; i++) {
+            int u = graph.inNeighbor(v, i);
+            es = Math.max(es, earliestStart[u] + duration[u]);
+        }
+        return es;
+    }
+
+    private long computeTail(int v) {
+        long t = 0;
+        int degree = graph.outDegree(v);
+        for (int i = 0; i < degree; i++) {
+            int w = graph.outNeighbor(v, i);
+            t = Math.max(t, duration[w] + tail[w]);
+        }
+        return t;
+    }
+
+    private long computeBound(int v) {
+        long b = deadline[v];
+        int degree = graph.outDegree(v);
+        for (int i = 0; i < degree; i++) {
+            int w = graph.outNeighbor(v, i);
+            if (bound[w] != NO_DEADLINE) {
+                b = Math.min(b, bound[w] - duration[w]);
+            }
+        }
+        return b;
+    }
+
+    private int durationOf(int id) {
+        return graph.isBlocking(id) ? graph.taskAt(id).getEstimatedMinutes() : 0;
+    }
+
+    // end of the due day, in minutes of work from the planning start
+    private long deadlineOf(int id) {
+        if (!graph.isBlocking(id)) return NO_DEADLINE;
+        LocalDate due = graph.taskAt(id).getDueDate();
+        if (due == null) return NO_DEADLINE;
+        return (due.toEpochDay() - startDay + 1) * minutesPerDay;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= duration.length) return;
+        int capacity = Math.max(required, duration.length * 2);
+        duration = Arrays.copyOf(duration, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        earliestStart = Arrays.copyOf(earliestStart, capacity);
+        tail = Arrays.copyOf(tail, capacity);
+        bound = Arrays.copyOf(bound, capacity);
+        forward.ensureCapacity(capacity);
+        backward.ensureCapacity(capacity);
+    }
+
+    /**
+     * Binary heap of vertex ids ordered by topological position (ascending
+     * for direction 1, descending for -1). Each id is queued at most once.
+     */
+    private final class Worklist {
+        private final int direction;
+        private int[] heap = new int[16];
+        private boolean[] queued = new boolean[0];
+        private int size;
+
+        Worklist(int direction) {
+            this.direction = direction;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (queued.length < capacity) {
+                queued = Arrays.copyOf(queued, capacity);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            while (size > 0) {
+                queued[heap[--size]] = false;
+            }
+        }
+
+        void push(int v) {
+            if (queued[v]) return;
+            queued[v] = true;
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (key(heap[parent]) <= key(v)) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = v;
+        }
+
+        int poll() {
+            int top = heap[0];
+            queued[top] = false;
+            int last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && key(heap[child + 1]) < key(heap[child])) child++;
+                if (key(last) <= key(heap[child])) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+
+        private long key(int v) {
+            return (long) direction * graph.topoIndexOf(v);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package smarttime.ds;
+
+import java.util.Arrays;
+
+/**
+ * One direction of a graph's adjacency (e.g. "dependents of v") stored in
+ * compressed-sparse-row form: the neighbours of every vertex are a slice
+ * [start[v], start[v] + length[v]) of one shared int[] edges array.
+ *
+ * New edges first go to a small per-vertex delta buffer so inserting does
+ * not shift the CSR array. Once the buffers plus the slots freed by
+ * removals hold more than a quarter of all edges (and at least
+ * MIN_COMPACT_DELTA), compact() folds them back into a fresh CSR array in
+ * O(V + E), which keeps insertion and removal O(1) amortised.
+ *
+ * Neighbour i of v is the CSR slice first, then the delta buffer. Next to
+ * every neighbour a "twin" int is stored: the owner's index of the same
+ * edge in the opposite direction's adjacency, so an edge can be removed
+ * from both sides without searching. Removal swaps the last neighbour
+ * into the freed index; compaction keeps every index unchanged.
+ */
+final class CsrAdjacency {
+
+    private static final int MIN_COMPACT_DELTA = 1024;
+    private static final int[] NO_EDGES = new int[0];
+
+    private int[] start;
+    private int[] length;
+    private int[] edges = NO_EDGES;
+    private int[] twins = NO_EDGES;
+    private int deadSlots;          // CSR slots given up by removals
+
+    private int[][] delta;
+    private int[][] deltaTwins;
+    private int[] deltaCount;
+    private int deltaEdges;
+
+    CsrAdjacency(int capacity) {
+        start = new int[capacity];
+        length = new int[capacity];
+        delta = new int[capacity][];
+        deltaTwins = new int[capacity][];
+        deltaCount = new int[capacity];
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= start.length) return;
+        start = Arrays.copyOf(start, capacity);
+        length = Arrays.copyOf(length, capacity);
+        delta = Arrays.copyOf(delta, capacity);
+        deltaTwins = Arrays.copyOf(deltaTwins, capacity);
+        deltaCount = Arrays.copyOf(deltaCount, capacity);
+    }
+
+    /** Reset v to no neighbours, releasing its delta buffer. */
+    void initVertex(int v) {
+        start[v] = 0;
+        length[v] = 0;
+        delta[v] = NO_EDGES;
+        deltaTwins[v] = NO_EDGES;
+        deltaCount[v] = 0;
+    }
+
+    int degree(int v) {
+        return length[v] + deltaCount[v];
+    }
+
+    int neighbor(int v, int i) {
+        int csr = length[v];
+        return i < csr ? edges[start[v] + i] : delta[v][i - csr];
+    }
+
+    /** Index of the same edge in the opposite adjacency's list of neighbor(v, i). */
+    int twin(int v, int i) {
+        int csr = length[v];
+        return i < csr ? twins[start[v] + i] : deltaTwins[v][i - csr];
+    }
+
+    void setTwin(int v, int i, int twin) {
+        int csr = length[v];
+        if (i < csr) {
+            twins[start[v] + i] = twin;
+        } else {
+            deltaTwins[v][i - csr] = twin;
+        }
+    }
+
+    /** Append neighbour w to v; returns its index. */
+    int add(int v, int w, int twin) {
+        int[] buffer = delta[v];
+        if (deltaCount[v] == buffer.length) {
+            int capacity = Math.max(2, buffer.length * 2);
+            buffer = Arrays.copyOf(buffer, capacity);
+            delta[v] = buffer;
+            deltaTwins[v] = Arrays.copyOf(deltaTwins[v], capacity);
+        }
+        int index = degree(v);
+        deltaTwins[v][deltaCount[v]] = twin;
+        buffer[deltaCount[v]++] = w;
+        deltaEdges++;
+        return index;
+    }
+
+    /**
+     * Remove neighbour i of v in O(1): the last neighbour moves into
+     * index i (the caller fixes its twin's back pointer).
+     */
+    void removeAt(int v, int i) {
+        int last = degree(v) - 1;
+        if (i != last) {
+            int w = neighbor(v, last);
+            int twin = twin(v, last);
+            int csr = length[v];
+            if (i < csr) {
+                edges[start[v] + i] = w;
+                twins[start[v] + i] = twin;
+            } else {
+                delta[v][i - csr] = w;
+                deltaTwins[v][i - csr] = twin;
+            }
+        }
+        if (deltaCount[v] > 0) {
+            deltaCount[v]--;
+            deltaEdges--;
+        } else {
+            length[v]--;
+            deadSlots++;
+        }
+    }
+
+    /**
+     * Should a batch of this many new edges be merged by appendAll()
+     * instead of going through the delta buffers one by one?
+     */
+    boolean prefersBulkAppend(int batchSize) {
+        return batchSize > Math.max(MIN_COMPACT_DELTA, edgeCount() / 4);
+    }
+
+    /**
+     * Append edges src[e] -> dst[e] (e < count, with twin[e]) and compact
+     * in the same O(V + E) pass. Each vertex keeps its current neighbours
+     * at the same indices; its new ones follow in batch order.
+     */
+    void appendAll(int vertexCount, int[] src, int[] dst, int[] twin, int count) {
+        int[] cursor = new int[vertexCount];
+        for (int e = 0; e < count; e++) {
+            cursor[src[e]]++;
+        }
+        int total = count;
+        for (int v = 0; v < vertexCount; v++) {
+            total += degree(v);
+        }
+
+        int[] merged = new int[total];
+        int[] mergedTwins = new int[total];
+        int pos = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int csr = length[v];
+            int extra = cursor[v];
+            System.arraycopy(edges, start[v], merged, pos, csr);
+            System.arraycopy(twins, start[v], mergedTwins, pos, csr);
+            System.arraycopy(delta[v], 0, merged, pos + csr, deltaCount[v]);
+            System.arraycopy(deltaTwins[v], 0, mergedTwins, pos + csr, deltaCount[v]);
+            start[v] = pos;
+            length[v] = csr + deltaCount[v] + extra;
+            cursor[v] = pos + csr + deltaCount[v];
+            pos += length[v];
+            delta[v] = NO_EDGES;
+            deltaTwins[v] = NO_EDGES;
+            deltaCount[v] = 0;
+        }
+        for (int e = 0; e < count; e++) {
+            int slot = cursor[src[e]]++;
+            merged[slot] = dst[e];
+            mergedTwins[slot] = twin[e];
+        }
+        edges = merged;
+        twins = mergedTwins;
+        deadSlots = 0;
+        deltaEdges = 0;
+    }
+
+    int edgeCount() {
+        return edges.length - deadSlots + deltaEdges;
+    }
+
+    boolean needsCompaction() {
+        return deltaEdges + deadSlots > Math.max(MIN_COMPACT_DELTA, edges.length / 4);
+    }
+
+    /** Merge every delta buffer into a new CSR array, vertices 0..vertexCount-1. */
+    void compact(int vertexCount) {
+        int total = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            total += degree(v);
+        }
+
+        int[] merged = new int[total];
+        int[] mergedTwins = new int[total];
+        int pos = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int csr = length[v];
+            System.arraycopy(edges, start[v], merged, pos, csr);
+            System.arraycopy(twins, start[v], mergedTwins, pos, csr);
+            System.arraycopy(delta[v], 0, merged, pos + csr, deltaCount[v]);
+            System.arraycopy(deltaTwins[v], 0, mergedTwins, pos + csr, deltaCount[v]);
+            start[v] = pos;
+            length[v] = csr + deltaCount[v];
+            pos += length[v];
+            delta[v] = NO_EDGES;
+            deltaTwins[v] = NO_EDGES;
+            deltaCount[v] = 0;
+        }
+        edges = merged;
+        twins = mergedTwins;
+        deadSlots = 0;
+        deltaEdges = 0;
+    }
+
+    /** Approximate heap bytes used by the arrays of this structure. */
+    long estimatedBytes() {
+        long bytes = 4L * (start.length + length.length + deltaCount.length
+                + edges.length + twins.length);
+        bytes += 16L * delta.length;
+        for (int v = 0; v < delta.length; v++) {
+            int[] buffer = delta[v];
+            if (buffer != null && buffer != NO_EDGES) bytes += 2 * (16 + 4L * buffer.length);
+        }
+        return bytes;
+    }
+}
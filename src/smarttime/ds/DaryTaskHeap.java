@@ -0,0 +1,410 @@
+package smarttime.ds;
+
+import smarttime.model.Task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-based d-ary min-heap for Task, implementing our custom MinPriorityQueue.
+ * Every node has up to {@code arity} children; arity 2 is the classic binary
+ * heap (see TaskMinHeap). Wider nodes make the tree shallower, so
+ * extractMin() touches fewer levels (and fewer cache lines) on large queues
+ * at the cost of more comparisons per level.
+ *
+ * Priority rules:
+ *  1) Earlier due date = higher priority
+ *  2) If same due date: lower difficulty first
+ *  3) If same difficulty: smaller estimatedMinutes first
+ *
+ * The heap is indexed, so contains() is O(1) and changePriority() /
+ * remove() are O(log n) instead of requiring a full rebuild. Every queued
+ * task has a dense entry number in [0, size): an IntIntMap finds it from
+ * the task id, and slotOfEntry[] / entryAt[] link entries and heap slots.
+ * Only the public calls hash; a swap on the sift path is two int stores.
+ * All index arrays are sized by the queue, whatever the ids are. Ids must
+ * be unique among queued tasks.
+ *
+ * Next to heap[] a parallel long[] holds each task's packed priority key
+ * (see TaskKeys), so sift-up / sift-down compare primitives instead of
+ * calling three getters and LocalDate.compareTo. Keys are refreshed in
+ * insert() and changePriority(), which must therefore be called whenever
+ * a queued task's due date, difficulty or minutes change.
+ */
+public class DaryTaskHeap implements QueueInterface<Task> {
+
+    private final int arity;
+    private Task[] heap;
+    private long[] keys; // keys[i] = TaskKeys.pack(heap[i])
+    private int size;
+    private int modCount; // bumped on every change, checked by iterators
+    // task id -> entry number; entries are renumbered to stay in [0, size)
+    private final IntIntMap entryById = new IntIntMap();
+    private int[] entryAt;      // heap slot -> entry number
+    private int[] slotOfEntry;  // entry number -> heap slot
+
+    public DaryTaskHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2.");
+        }
+        this.arity = arity;
+        heap = new Task[Math.max(1, capacity)];
+        keys = new long[heap.length];
+        entryAt = new int[heap.length];
+        slotOfEntry = new int[heap.length];
+        size = 0;
+    }
+
+    @Override
+    public void insert(Task task) {
+        if (task == null) return;
+        if (slotOf(task) >= 0) {
+            // already queued: just make sure it sits in the right place
+            changePriority(task);
+            return;
+        }
+        ensureCapacity();
+        addEntry(task);
+        size++;
+        modCount++;
+        heapifyUp(size - 1);
+    }
+
+    /**
+     * Replace the heap contents with the given tasks using bottom-up
+     * (Floyd) heapify: O(n) instead of n sequential inserts.
+     */
+    public void buildFrom(Collection<Task> tasks) {
+        clear();
+        insertAll(tasks);
+    }
+
+    /**
+     * Add many tasks at once. Capacity is grown a single time; when the
+     * batch is large compared to the current heap the whole array is
+     * re-heapified bottom-up, otherwise each new task is sifted up.
+     */
+    public void insertAll(Collection<Task> tasks) {
+        if (tasks == null || tasks.isEmpty()) return;
+
+        ensureCapacity(size + tasks.size());
+        int oldSize = size;
+        for (Task t : tasks) {
+            if (t == null || slotOf(t) >= 0) continue;
+            addEntry(t);
+            size++;
+        }
+
+        int added = size - oldSize;
+        modCount++;
+        if (added > oldSize) {
+            for (int i = parent(size - 1); i >= 0; i--) {
+                heapifyDown(i);
+            }
+        } else {
+            for (int i = oldSize; i < size; i++) {
+                heapifyUp(i);
+            }
+        }
+    }
+
+    @Override
+    public Task findMin() {
+        return size == 0 ? null : heap[0];
+    }
+
+    @Override
+    public Task extractMin() {
+        if (size == 0) return null;
+        Task min = heap[0];
+        removeAt(0);
+        return min;
+    }
+
+    /** O(1) membership test. */
+    public boolean contains(Task task) {
+        return task != null && slotOf(task) >= 0;
+    }
+
+    /**
+     * Restore the heap order after the scheduling fields (due date,
+     * difficulty, minutes) of a queued task have changed. O(log n).
+     *
+     * @return false if the task is not in the heap
+     */
+    public boolean changePriority(Task task) {
+        int index = task == null ? -1 : slotOf(task);
+        if (index < 0) return false;
+        keys[index] = TaskKeys.pack(task);
+        modCount++;
+        sift(index);
+        return true;
+    }
+
+    /**
+     * Remove an arbitrary task from the heap. O(log n).
+     *
+     * @return false if the task is not in the heap
+     */
+    public boolean remove(Task task) {
+        int index = task == null ? -1 : slotOf(task);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    /**
+     * Iterate the queued tasks in priority order without modifying the heap.
+     *
+     * Walks the heap tree with a small auxiliary frontier (itself a binary
+     * min-heap of slot indices): the next task is the smallest frontier
+     * entry, and taking it adds its children. Reading the first k tasks costs
+     * O(k * arity * log k) regardless of the heap size. The iterator is
+     * fail-fast: it throws ConcurrentModificationException if the heap
+     * changes while iterating.
+     */
+    public Iterator<Task> orderedIterator() {
+        return new OrderedIterator();
+    }
+
+    /** The k highest-priority tasks, best first, without modifying the heap. */
+    public List<Task> peekTop(int k) {
+        List<Task> top = new ArrayList<>(Math.max(0, Math.min(k, size)));
+        Iterator<Task> it = orderedIterator();
+        while (top.size() < k && it.hasNext()) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    private void removeAt(int index) {
+        int entry = entryAt[index];
+        entryById.remove(heap[index].getId());
+        int last = size - 1;
+        if (index != last) {
+            heap[index] = heap[last];
+            keys[index] = keys[last];
+            entryAt[index] = entryAt[last];
+            place(index);
+        }
+        heap[last] = null;
+        if (entry != last) {
+            // the highest entry number takes over the freed one
+            int slot = slotOfEntry[last];
+            entryAt[slot] = entry;
+            slotOfEntry[entry] = slot;
+            entryById.replace(heap[slot].getId(), entry);
+        }
+        size--;
+        modCount++;
+
+        if (index < size) {
+            sift(index);
+        }
+    }
+
+    // move the element at index up or down, whichever restores the order
+    private void sift(int index) {
+        if (index > 0 && keys[index] < keys[parent(index)]) {
+            heapifyUp(index);
+        } else {
+            heapifyDown(index);
+        }
+    }
+
+    private void ensureCapacity() {
+        ensureCapacity(size + 1);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > heap.length) {
+            int capacity = Math.max(required, heap.length * 2);
+            Task[] newHeap = new Task[capacity];
+            long[] newKeys = new long[capacity];
+            System.arraycopy(heap, 0, newHeap, 0, size);
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            heap = newHeap;
+            keys = newKeys;
+            entryAt = Arrays.copyOf(entryAt, capacity);
+            slotOfEntry = Arrays.copyOf(slotOfEntry, capacity);
+        }
+    }
+
+    private int parent(int index) {
+        return (index - 1) / arity;
+    }
+
+    private int firstChild(int index) {
+        return arity * index + 1;
+    }
+
+    private void heapifyUp(int index) {
+        int current = index;
+        while (current > 0) {
+            int parentIndex = parent(current);
+            if (keys[current] < keys[parentIndex]) {
+                swap(current, parentIndex);
+                current = parentIndex;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void heapifyDown(int index) {
+        int current = index;
+        while (true) {
+            int first = firstChild(current);
+            if (first >= size) break;
+
+            int last = Math.min(first + arity, size);
+            int smallest = current;
+            for (int child = first; child < last; child++) {
+                if (keys[child] < keys[smallest]) {
+                    smallest = child;
+                }
+            }
+
+            if (smallest != current) {
+                swap(current, smallest);
+                current = smallest;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        Task tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+        long tmpKey = keys[i];
+        keys[i] = keys[j];
+        keys[j] = tmpKey;
+        int tmpEntry = entryAt[i];
+        entryAt[i] = entryAt[j];
+        entryAt[j] = tmpEntry;
+        place(i);
+        place(j);
+    }
+
+    // slot of this exact task, or -1 if it is not queued
+    private int slotOf(Task task) {
+        int entry = entryById.get(task.getId());
+        if (entry < 0) return -1;
+        int slot = slotOfEntry[entry];
+        return heap[slot] == task ? slot : -1;
+    }
+
+    private void place(int slot) {
+        slotOfEntry[entryAt[slot]] = slot;
+    }
+
+    // put a task into slot 'size' as entry number 'size' (capacity is ensured)
+    private void addEntry(Task task) {
+        int id = task.getId();
+        if (!entryById.putNew(id, size)) {
+            throw new IllegalArgumentException("Another task with id " + id + " is already queued.");
+        }
+        heap[size] = task;
+        keys[size] = TaskKeys.pack(task);
+        entryAt[size] = size;
+        slotOfEntry[size] = size;
+    }
+
+    /** Clear the heap completely (used when rebuilding heap). */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        entryById.clear();
+        size = 0;
+        modCount++;
+    }
+
+    private class OrderedIterator implements Iterator<Task> {
+
+        private final int expectedModCount = modCount;
+        private int[] frontier = new int[Math.min(Math.max(size, 1), 16)];
+        private int frontierSize;
+
+        OrderedIterator() {
+            if (size > 0) push(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return frontierSize > 0;
+        }
+
+        @Override
+        public Task next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (frontierSize == 0) {
+                throw new NoSuchElementException();
+            }
+
+            int slot = pop();
+            int first = firstChild(slot);
+            int last = Math.min(first + arity, size);
+            for (int child = first; child < last; child++) {
+                push(child);
+            }
+            return heap[slot];
+        }
+
+        private void push(int slot) {
+            if (frontierSize == frontier.length) {
+                int[] bigger = new int[frontier.length * 2];
+                System.arraycopy(frontier, 0, bigger, 0, frontierSize);
+                frontier = bigger;
+            }
+            int i = frontierSize++;
+            while (i > 0) {
+                int p = (i - 1) / 2;
+                if (keys[frontier[p]] <= keys[slot]) break;
+                frontier[i] = frontier[p];
+                i = p;
+            }
+            frontier[i] = slot;
+        }
+
+        private int pop() {
+            int top = frontier[0];
+            int moved = frontier[--frontierSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= frontierSize) break;
+                if (child + 1 < frontierSize && keys[frontier[child + 1]] < keys[frontier[child]]) {
+                    child++;
+                }
+                if (keys[moved] <= keys[frontier[child]]) break;
+                frontier[i] = frontier[child];
+                i = child;
+            }
+            if (frontierSize > 0) frontier[i] = moved;
+            return top;
+        }
+    }
+}
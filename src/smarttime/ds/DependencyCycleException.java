@@ -0,0 +1,41 @@
+package smarttime.ds;
+
+import java.util.List;
+
+import smarttime.model.Task;
+
+/**
+ * Thrown when a batch of dependencies would make the graph cyclic.
+ * Carries one concrete cycle per offending strongly connected component,
+ * each listed as prerequisite -> ... -> dependent, closing back on its
+ * first task.
+ */
+public class DependencyCycleException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<List<Task>> cycles;
+
+    public DependencyCycleException(List<List<Task>> cycles) {
+        super(describe(cycles));
+        this.cycles = cycles;
+    }
+
+    public List<List<Task>> getCycles() {
+        return cycles;
+    }
+
+    private static String describe(List<List<Task>> cycles) {
+        StringBuilder sb = new StringBuilder("Adding these dependencies creates ")
+                .append(cycles.size()).append(cycles.size() == 1 ? " cycle: " : " cycles: ");
+        for (int c = 0; c < cycles.size(); c++) {
+            if (c > 0) sb.append("; ");
+            List<Task> cycle = cycles.get(c);
+            for (Task task : cycle) {
+                sb.append(task.getTitle()).append(" -> ");
+            }
+            sb.append(cycle.get(0).getTitle());
+        }
+        return sb.toString();
+    }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 public interface GraphInterface<V> {
     void addVertex(V v);
     void addEdge(V from, V to);
+    boolean removeVertex(V v);
+    boolean removeEdge(V from, V to);
     List<V> getNeighbors(V v);
     boolean hasCycle();
 }
\ No newline at end of file
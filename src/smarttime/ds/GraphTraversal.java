@@ -0,0 +1,285 @@
+package smarttime.ds;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Explicit-stack traversal engine over an IntGraphInterface.
+ *
+ * Nothing here recurses, so a 1,000,000-step prerequisite chain is as
+ * safe as a short one. Work stacks are int[] and visit state lives in
+ * int-indexed arrays that are reused between calls: "visited" is an
+ * epoch stamp, so starting a new search is O(1) instead of clearing
+ * a map.
+ *
+ * Not thread-safe; each graph owns one engine.
+ */
+public class GraphTraversal {
+
+    private final IntGraphInterface graph;
+
+    private int[] mark = new int[16]; // mark[v] == epoch -> visited in this search
+    private int epoch;
+    private int[] stack = new int[16];
+    private int[] visited = new int[16];
+    private int visitedCount;
+
+    public GraphTraversal(IntGraphInterface graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Depth-first search from start, following out-edges (forward) or
+     * in-edges (backward), entering only vertices accepted by 'allowed'
+     * (null = all). Stops as soon as target is met (target -1 = never).
+     * Afterwards visitedCount()/visitedAt() list every vertex entered.
+     *
+     * @return true if target was reached
+     */
+    public boolean search(int start, boolean forward, IntPredicate allowed, int target) {
+        beginSearch();
+        visitedCount = 0;
+        int top = 0;
+        push(top++, start);
+        mark[start] = epoch;
+
+        while (top > 0) {
+            int v = stack[--top];
+            addVisited(v);
+            if (v == target) return true;
+
+            int degree = forward ? graph.outDegree(v) : graph.inDegree(v);
+            for (int i = 0; i < degree; i++) {
+                int w = forward ? graph.outNeighbor(v, i) : graph.inNeighbor(v, i);
+                if (mark[w] == epoch) continue;
+                if (w == target) {
+                    addVisited(w);
+                    return true;
+                }
+                if (allowed != null && !allowed.test(w)) continue;
+                mark[w] = epoch;
+                push(top++, w);
+            }
+        }
+        return false;
+    }
+
+    /** Is there a directed path from -> to? */
+    public boolean reaches(int from, int to) {
+        return from == to || search(from, true, null, to);
+    }
+
+    public int visitedCount() {
+        return visitedCount;
+    }
+
+    public int visitedAt(int i) {
+        return visited[i];
+    }
+
+    /** Copy of the vertices entered by the last search. */
+    public int[] visitedVertices() {
+        int[] copy = new int[visitedCount];
+        System.arraycopy(visited, 0, copy, 0, visitedCount);
+        return copy;
+    }
+
+    /**
+     * Iterative three-colour DFS over the whole graph.
+     * Colours: 0 = unvisited, 1 = on the current path, 2 = done.
+     */
+    public boolean hasCycle() {
+        int n = graph.vertexCount();
+        byte[] color = new byte[n];
+        int[] cursor = new int[n];
+
+        for (int root = 0; root < n; root++) {
+            if (color[root] != 0) continue;
+
+            int top = 0;
+            push(top++, root);
+            color[root] = 1;
+            while (top > 0) {
+                int v = stack[top - 1];
+                if (cursor[v] < graph.outDegree(v)) {
+                    int w = graph.outNeighbor(v, cursor[v]++);
+                    if (color[w] == 1) return true; // back edge
+                    if (color[w] == 0) {
+                        color[w] = 1;
+                        push(top++, w);
+                    }
+                } else {
+                    color[v] = 2;
+                    top--;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Kahn's algorithm: every vertex after all of its predecessors.
+     *
+     * @return vertex ids in topological order, or null if there is a cycle
+     */
+    public int[] topologicalOrder() {
+        int n = graph.vertexCount();
+        int[] remaining = new int[n];
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        int live = 0;
+
+        for (int v = 0; v < n; v++) {
+            if (!graph.containsVertex(v)) continue;
+            live++;
+            remaining[v] = graph.inDegree(v);
+            if (remaining[v] == 0) order[tail++] = v;
+        }
+        while (head < tail) {
+            int v = order[head++];
+            int degree = graph.outDegree(v);
+            for (int i = 0; i < degree; i++) {
+                int w = graph.outNeighbor(v, i);
+                if (--remaining[w] == 0) order[tail++] = w;
+            }
+        }
+        if (tail < live) return null;
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+
+    /**
+     * Tarjan's strongly connected components, iterative.
+     * component[v] gets a component number for every live vertex (-1 for
+     * free ids); components are numbered in reverse topological order.
+     *
+     * @return the number of components
+     */
+    public int stronglyConnectedComponents(int[] component) {
+        int n = graph.vertexCount();
+        int[] index = new int[n];       // discovery number + 1, 0 = unvisited
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+        int counter = 0;
+        int components = 0;
+        Arrays.fill(component, 0, n, -1);
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0 || !graph.containsVertex(root)) continue;
+
+            int top = 0;
+            push(top++, root);
+            index[root] = low[root] = ++counter;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            while (top > 0) {
+                int v = stack[top - 1];
+                if (cursor[v] < graph.outDegree(v)) {
+                    int w = graph.outNeighbor(v, cursor[v]++);
+                    if (index[w] == 0) {
+                        index[w] = low[w] = ++counter;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        push(top++, w);
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                top--;
+                if (top > 0) {
+                    int parent = stack[top - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        component[w] = components;
+                    } while (w != v);
+                    components++;
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * A shortest cycle through v using only vertices of v's component
+     * (breadth-first over out-edges until v is met again).
+     *
+     * @return the vertices of the cycle starting at v, or null if none
+     */
+    public int[] cycleThrough(int v, int[] component) {
+        beginSearch();
+        int n = graph.vertexCount();
+        int[] parent = new int[n];
+        int head = 0;
+        visitedCount = 0;
+        addVisited(v);
+        mark[v] = epoch;
+
+        while (head < visitedCount) {
+            int u = visited[head++];
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int w = graph.outNeighbor(u, i);
+                if (w == v) {
+                    return pathTo(u, v, parent);
+                }
+                if (mark[w] == epoch || component[w] != component[v]) continue;
+                mark[w] = epoch;
+                parent[w] = u;
+                addVisited(w);
+            }
+        }
+        return null;
+    }
+
+    // v, ..., last following parent links back from last
+    private static int[] pathTo(int last, int v, int[] parent) {
+        int length = 1;
+        for (int u = last; u != v; u = parent[u]) length++;
+        int[] path = new int[length];
+        for (int u = last, i = length - 1; i >= 0; i--) {
+            path[i] = u;
+            if (u != v) u = parent[u];
+        }
+        return path;
+    }
+
+    private void beginSearch() {
+        int n = graph.vertexCount();
+        if (mark.length < n) {
+            mark = new int[Math.max(n, mark.length * 2)];
+            epoch = 0;
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+    }
+
+    private void push(int index, int v) {
+        if (index == stack.length) {
+            int[] bigger = new int[stack.length * 2];
+            System.arraycopy(stack, 0, bigger, 0, stack.length);
+            stack = bigger;
+        }
+        stack[index] = v;
+    }
+
+    private void addVisited(int v) {
+        if (visitedCount == visited.length) {
+            int[] bigger = new int[visited.length * 2];
+            System.arraycopy(visited, 0, bigger, 0, visitedCount);
+            visited = bigger;
+        }
+        visited[visitedCount++] = v;
+    }
+}
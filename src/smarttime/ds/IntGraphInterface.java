@@ -0,0 +1,16 @@
+package smarttime.ds;
+
+/**
+ * Read-only view of a directed graph whose vertices are dense int ids
+ * 0..vertexCount()-1. Lets GraphTraversal walk a graph with primitive
+ * arrays instead of hashing vertex objects. Ids of removed vertices may be
+ * unused (containsVertex() false, no edges).
+ */
+public interface IntGraphInterface {
+    int vertexCount();
+    boolean containsVertex(int v);
+    int outDegree(int v);
+    int outNeighbor(int v, int i);
+    int inDegree(int v);
+    int inNeighbor(int v, int i);
+}
@@ -0,0 +1,119 @@
+package smarttime.ds;
+
+/**
+ * Map from int keys to non-negative int values: the same open-addressing
+ * table as TaskIdMap (linear probing, tombstones, no boxing), without the
+ * insertion-order links. Used to find a task's dense vertex id or heap
+ * entry from its task id, so the index is sized by the number of entries
+ * rather than by the largest id a task file happens to contain.
+ */
+class IntIntMap {
+
+    static final int ABSENT = -1;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+
+    private int[] keys;
+    private int[] values;
+    private byte[] state;
+    private int size;
+    private int tombstones;
+
+    IntIntMap() {
+        this(16);
+    }
+
+    IntIntMap(int expectedSize) {
+        allocate(TaskIdMap.tableSizeFor(expectedSize));
+    }
+
+    /** The value stored under key, or ABSENT. */
+    int get(int key) {
+        int slot = find(key);
+        return slot < 0 ? ABSENT : values[slot];
+    }
+
+    /**
+     * Store a value under a key that is not in the map yet. Returns false
+     * (and changes nothing) if the key is already taken.
+     */
+    boolean putNew(int key, int value) {
+        if (find(key) >= 0) return false;
+
+        if ((size + tombstones + 1) * 2 > keys.length) {
+            rehash(size + 1 > keys.length / 4 ? keys.length * 2 : keys.length);
+        }
+        int slot = freeSlot(key);
+        if (state[slot] == DELETED) tombstones--;
+        keys[slot] = key;
+        values[slot] = value;
+        state[slot] = FULL;
+        size++;
+        return true;
+    }
+
+    /** Overwrite the value of a key that is already in the map. */
+    void replace(int key, int value) {
+        values[find(key)] = value;
+    }
+
+    /** Remove a key; returns its value, or ABSENT if there was none. */
+    int remove(int key) {
+        int slot = find(key);
+        if (slot < 0) return ABSENT;
+        state[slot] = DELETED;
+        size--;
+        tombstones++;
+        return values[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allocate(16);
+        size = 0;
+        tombstones = 0;
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        for (int i = TaskIdMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            byte s = state[i];
+            if (s == EMPTY) return -1;
+            if (s == FULL && keys[i] == key) return i;
+        }
+    }
+
+    private int freeSlot(int key) {
+        int mask = keys.length - 1;
+        for (int i = TaskIdMap.hash(key) & mask; ; i = (i + 1) & mask) {
+            if (state[i] != FULL) return i;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        byte[] oldState = state;
+
+        allocate(capacity);
+        tombstones = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldState[slot] != FULL) continue;
+            int i = freeSlot(oldKeys[slot]);
+            keys[i] = oldKeys[slot];
+            values[i] = oldValues[slot];
+            state[i] = FULL;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        state = new byte[capacity];
+    }
+}
@@ -0,0 +1,168 @@
+package smarttime.ds;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+import smarttime.model.Task;
+
+/**
+ * Introspective sort for Tasks (Sorting ADT implementation).
+ *
+ * QuickSort with the usual safety nets:
+ *  - median-of-three pivot (ninther on large ranges), so sorted and
+ *    reverse-sorted input partition evenly
+ *  - three-way partitioning, so runs of equal keys (difficulty is only
+ *    1-5) are finished in one pass instead of going quadratic
+ *  - insertion sort for small ranges
+ *  - HeapSort fallback once recursion gets deeper than 2*log2(n),
+ *    which caps the worst case at O(n log n)
+ * Recursion only descends into the smaller side, so stack depth is
+ * O(log n) even on hostile input.
+ */
+public class IntroTaskSorter implements TaskSorterInterface {
+
+    private static final int INSERTION_SORT_CUTOFF = 16;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    @Override
+    public void sort(List<Task> tasks, Comparator<Task> comparator) {
+        if (tasks == null || tasks.size() <= 1) return;
+        if (TaskRadixSort.trySort(tasks, comparator)) return;
+
+        Task[] a = tasks.toArray(new Task[0]);
+        sortRange(a, 0, a.length, comparator);
+        writeBack(tasks, a);
+    }
+
+    /** Copy a sorted array back into the list through its iterator: O(n) even for linked lists. */
+    static void writeBack(List<Task> tasks, Task[] a) {
+        ListIterator<Task> it = tasks.listIterator();
+        for (Task t : a) {
+            it.next();
+            it.set(t);
+        }
+    }
+
+    /** Sort a[lo, hi) in place. */
+    static void sortRange(Task[] a, int lo, int hi, Comparator<? super Task> cmp) {
+        if (hi - lo <= 1) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(hi - lo));
+        introSort(a, lo, hi, depthLimit, cmp);
+    }
+
+    private static void introSort(Task[] a, int lo, int hi, int depth, Comparator<? super Task> cmp) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort(a, lo, hi, cmp);
+                return;
+            }
+            depth--;
+
+            long bounds = partition3(a, lo, hi, a[choosePivot(a, lo, hi, cmp)], cmp);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+
+            // recurse into the smaller side, loop on the larger one
+            if (lt - lo < hi - gt - 1) {
+                introSort(a, lo, lt, depth, cmp);
+                lo = gt + 1;
+            } else {
+                introSort(a, gt + 1, hi, depth, cmp);
+                hi = lt;
+            }
+        }
+        insertionSort(a, lo, hi, cmp);
+    }
+
+    private static int choosePivot(Task[] a, int lo, int hi, Comparator<? super Task> cmp) {
+        int n = hi - lo;
+        int mid = lo + n / 2;
+        int last = hi - 1;
+        if (n >= NINTHER_THRESHOLD) {
+            // Tukey's ninther: median of three medians-of-three
+            int step = n / 8;
+            int m1 = medianOf3(a, lo, lo + step, lo + 2 * step, cmp);
+            int m2 = medianOf3(a, mid - step, mid, mid + step, cmp);
+            int m3 = medianOf3(a, last - 2 * step, last - step, last, cmp);
+            return medianOf3(a, m1, m2, m3, cmp);
+        }
+        return medianOf3(a, lo, mid, last, cmp);
+    }
+
+    /**
+     * Three-way partition of a[lo, hi) around pivot: afterwards [lo, lt)
+     * is < pivot, [lt, gt] == pivot and (gt, hi) > pivot. Returns lt in
+     * the high and gt in the low 32 bits.
+     */
+    static long partition3(Task[] a, int lo, int hi, Task pivot, Comparator<? super Task> cmp) {
+        int lt = lo;
+        int gt = hi - 1;
+        int i = lo;
+        while (i <= gt) {
+            int c = cmp.compare(a[i], pivot);
+            if (c < 0) {
+                swap(a, lt++, i++);
+            } else if (c > 0) {
+                swap(a, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return (long) lt << 32 | gt;
+    }
+
+    static int medianOf3(Task[] a, int i, int j, int k, Comparator<? super Task> cmp) {
+        if (cmp.compare(a[i], a[j]) < 0) {
+            if (cmp.compare(a[j], a[k]) < 0) return j;
+            return cmp.compare(a[i], a[k]) < 0 ? k : i;
+        }
+        if (cmp.compare(a[k], a[j]) < 0) return j;
+        return cmp.compare(a[k], a[i]) < 0 ? k : i;
+    }
+
+    private static void insertionSort(Task[] a, int lo, int hi, Comparator<? super Task> cmp) {
+        for (int i = lo + 1; i < hi; i++) {
+            Task x = a[i];
+            int j = i - 1;
+            while (j >= lo && cmp.compare(a[j], x) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    private static void heapSort(Task[] a, int lo, int hi, Comparator<? super Task> cmp) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, lo, i, n, cmp);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, cmp);
+        }
+    }
+
+    // max-heap sift-down on a[lo, lo + n), positions relative to lo
+    private static void siftDown(Task[] a, int lo, int i, int n, Comparator<? super Task> cmp) {
+        Task x = a[lo + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && cmp.compare(a[lo + child + 1], a[lo + child]) > 0) {
+                child++;
+            }
+            if (cmp.compare(a[lo + child], x) <= 0) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = x;
+    }
+
+    static void swap(Task[] a, int i, int j) {
+        Task tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+}
@@ -0,0 +1,234 @@
+package smarttime.ds;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import smarttime.config.AppConfig;
+import smarttime.model.Task;
+
+/**
+ * Parallel MergeSort for Tasks on a ForkJoinPool (Sorting ADT implementation).
+ *
+ * The list is copied into an array and sorted with a stable, ping-pong
+ * MergeSort: both halves are sorted in parallel into the spare buffer and
+ * then merged back, and large merges are themselves split in two by binary
+ * search so the final passes also use every core. Ranges below the
+ * sequential cutoff are sorted on the current thread, and lists below the
+ * parallel threshold never touch the pool.
+ *
+ * Because the sort is stable the result is exactly the order a sequential
+ * stable sort (e.g. List.sort) gives with the same comparator, independent
+ * of the number of threads.
+ */
+public class ParallelTaskSorter implements TaskSorterInterface {
+
+    private static final int INSERTION_SORT_CUTOFF = 32;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int sequentialCutoff;
+
+    public ParallelTaskSorter() {
+        this(ForkJoinPool.commonPool(),
+                AppConfig.PARALLEL_SORT_THRESHOLD,
+                AppConfig.PARALLEL_SORT_SEQUENTIAL_CUTOFF);
+    }
+
+    public ParallelTaskSorter(ForkJoinPool pool, int parallelThreshold, int sequentialCutoff) {
+        if (pool == null) {
+            throw new IllegalArgumentException("A ForkJoinPool is required.");
+        }
+        this.pool = pool;
+        this.parallelThreshold = Math.max(2, parallelThreshold);
+        this.sequentialCutoff = Math.max(INSERTION_SORT_CUTOFF, sequentialCutoff);
+    }
+
+    @Override
+    public void sort(List<Task> tasks, Comparator<Task> comparator) {
+        if (tasks == null || tasks.size() <= 1) return;
+        if (TaskRadixSort.trySort(tasks, comparator)) return;
+
+        Task[] a = tasks.toArray(new Task[0]);
+        sortArray(a, comparator);
+        IntroTaskSorter.writeBack(tasks, a);
+    }
+
+    /** Stable sort of a whole array; arrays below the threshold stay on this thread. */
+    public void sortArray(Task[] a, Comparator<? super Task> comparator) {
+        if (a.length <= 1) return;
+        Task[] buf = new Task[a.length];
+        if (a.length < parallelThreshold) {
+            sequentialSort(a, buf, 0, a.length, false, comparator);
+        } else {
+            pool.invoke(new SortTask(a, buf, 0, a.length, false, comparator));
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi). The sorted run ends up in buf when intoBuf is
+     * true, otherwise back in src; the other array is used as scratch.
+     */
+    private final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Task[] src;
+        private final Task[] buf;
+        private final int lo;
+        private final int hi;
+        private final boolean intoBuf;
+        private final Comparator<? super Task> cmp;
+
+        SortTask(Task[] src, Task[] buf, int lo, int hi, boolean intoBuf, Comparator<? super Task> cmp) {
+            this.src = src;
+            this.buf = buf;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuf = intoBuf;
+            this.cmp = cmp;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= sequentialCutoff) {
+                sequentialSort(src, buf, lo, hi, intoBuf, cmp);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // halves land in the opposite array, then merge into the target
+            invokeAll(new SortTask(src, buf, lo, mid, !intoBuf, cmp),
+                      new SortTask(src, buf, mid, hi, !intoBuf, cmp));
+            Task[] from = intoBuf ? src : buf;
+            Task[] to = intoBuf ? buf : src;
+            new MergeTask(from, lo, mid, from, mid, hi, to, lo, cmp).compute();
+        }
+    }
+
+    /** Stable merge of left[l1, h1) and right[l2, h2) into out starting at o. */
+    private final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Task[] left;
+        private final int l1;
+        private final int h1;
+        private final Task[] right;
+        private final int l2;
+        private final int h2;
+        private final Task[] out;
+        private final int o;
+        private final Comparator<? super Task> cmp;
+
+        MergeTask(Task[] left, int l1, int h1, Task[] right, int l2, int h2,
+                  Task[] out, int o, Comparator<? super Task> cmp) {
+            this.left = left;
+            this.l1 = l1;
+            this.h1 = h1;
+            this.right = right;
+            this.l2 = l2;
+            this.h2 = h2;
+            this.out = out;
+            this.o = o;
+            this.cmp = cmp;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = h1 - l1;
+            int n2 = h2 - l2;
+            if (n1 + n2 <= sequentialCutoff || n1 == 0 || n2 == 0) {
+                merge(left, l1, h1, right, l2, h2, out, o, cmp);
+                return;
+            }
+
+            int m1;
+            int m2;
+            if (n1 >= n2) {
+                // split the left run; equal right elements must stay after it
+                m1 = (l1 + h1) >>> 1;
+                m2 = lowerBound(right, l2, h2, left[m1], cmp);
+                int pos = o + (m1 - l1) + (m2 - l2);
+                out[pos] = left[m1];
+                invokeAll(new MergeTask(left, l1, m1, right, l2, m2, out, o, cmp),
+                          new MergeTask(left, m1 + 1, h1, right, m2, h2, out, pos + 1, cmp));
+            } else {
+                // split the right run; equal left elements must stay before it
+                m2 = (l2 + h2) >>> 1;
+                m1 = upperBound(left, l1, h1, right[m2], cmp);
+                int pos = o + (m1 - l1) + (m2 - l2);
+                out[pos] = right[m2];
+                invokeAll(new MergeTask(left, l1, m1, right, l2, m2, out, o, cmp),
+                          new MergeTask(left, m1, h1, right, m2 + 1, h2, out, pos + 1, cmp));
+            }
+        }
+    }
+
+    private static void sequentialSort(Task[] src, Task[] buf, int lo, int hi,
+                                       boolean intoBuf, Comparator<? super Task> cmp) {
+        if (hi - lo <= INSERTION_SORT_CUTOFF) {
+            insertionSort(src, lo, hi, cmp);
+            if (intoBuf) {
+                System.arraycopy(src, lo, buf, lo, hi - lo);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sequentialSort(src, buf, lo, mid, !intoBuf, cmp);
+        sequentialSort(src, buf, mid, hi, !intoBuf, cmp);
+        Task[] from = intoBuf ? src : buf;
+        Task[] to = intoBuf ? buf : src;
+        merge(from, lo, mid, from, mid, hi, to, lo, cmp);
+    }
+
+    private static void merge(Task[] left, int l1, int h1, Task[] right, int l2, int h2,
+                              Task[] out, int o, Comparator<? super Task> cmp) {
+        while (l1 < h1 && l2 < h2) {
+            // take from the left run on ties to keep the sort stable
+            if (cmp.compare(right[l2], left[l1]) < 0) {
+                out[o++] = right[l2++];
+            } else {
+                out[o++] = left[l1++];
+            }
+        }
+        while (l1 < h1) out[o++] = left[l1++];
+        while (l2 < h2) out[o++] = right[l2++];
+    }
+
+    private static void insertionSort(Task[] a, int lo, int hi, Comparator<? super Task> cmp) {
+        for (int i = lo + 1; i < hi; i++) {
+            Task x = a[i];
+            int j = i - 1;
+            while (j >= lo && cmp.compare(a[j], x) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    // first index in a[lo, hi) whose element is >= key
+    private static int lowerBound(Task[] a, int lo, int hi, Task key, Comparator<? super Task> cmp) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cmp.compare(a[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // first index in a[lo, hi) whose element is > key
+    private static int upperBound(Task[] a, int lo, int hi, Task key, Comparator<? super Task> cmp) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cmp.compare(a[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
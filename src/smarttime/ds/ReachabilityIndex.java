@@ -0,0 +1,167 @@
+package smarttime.ds;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Transitive closure of a TaskGraph as one descendant and one ancestor
+ * BitSet per vertex, so reaches() is a single bit test and "everything
+ * this unblocks" is a copy of one set instead of a walk over the graph.
+ *
+ * The closure costs O(V^2) bits, so it is only kept while the graph has
+ * at most maxVertices vertices; above that every query falls back to a
+ * search through the graph's GraphTraversal.
+ *
+ * Built lazily on the first query. An added edge u -> v is folded in by
+ * OR-ing v's descendants into every ancestor of u (and the mirror for
+ * ancestors); a removed edge cannot be undone that way, so it only marks
+ * the index stale and the next query rebuilds it in one reverse
+ * topological pass.
+ */
+final class ReachabilityIndex {
+
+    private final TaskGraph graph;
+    private final int maxVertices;
+
+    private BitSet[] descendants = new BitSet[0];
+    private BitSet[] ancestors = new BitSet[0];
+    private boolean built;      // closure is up to date for 'covered' vertices
+    private int covered;        // vertices with an entry in the arrays
+
+    ReachabilityIndex(TaskGraph graph, int maxVertices) {
+        this.graph = graph;
+        this.maxVertices = maxVertices;
+    }
+
+    /** Fold a new edge u -> v into the closure. */
+    void edgeAdded(int u, int v) {
+        if (!built) return;
+        if (graph.vertexCount() > maxVertices) {
+            release();
+            return;
+        }
+        coverNewVertices();
+        if (descendants[u].get(v)) return;
+
+        BitSet sources = (BitSet) ancestors[u].clone();
+        sources.set(u);
+        BitSet targets = (BitSet) descendants[v].clone();
+        targets.set(v);
+        for (int a = sources.nextSetBit(0); a >= 0; a = sources.nextSetBit(a + 1)) {
+            descendants[a].or(targets);
+        }
+        for (int d = targets.nextSetBit(0); d >= 0; d = targets.nextSetBit(d + 1)) {
+            ancestors[d].or(sources);
+        }
+    }
+
+    /** An edge or vertex went away; rebuild on the next query. */
+    void invalidate() {
+        built = false;
+    }
+
+    boolean reaches(int from, int to) {
+        if (from == to) return true;
+        if (ensureBuilt()) {
+            return descendants[from].get(to);
+        }
+        return graph.traversal().reaches(from, to);
+    }
+
+    /** Every vertex reachable from v (v itself excluded). */
+    int[] descendantsOf(int v) {
+        if (ensureBuilt()) {
+            return descendants[v].stream().toArray();
+        }
+        return searchFrom(v, true);
+    }
+
+    /** Every vertex that reaches v (v itself excluded). */
+    int[] ancestorsOf(int v) {
+        if (ensureBuilt()) {
+            return ancestors[v].stream().toArray();
+        }
+        return searchFrom(v, false);
+    }
+
+    // true when the closure can answer queries
+    private boolean ensureBuilt() {
+        int n = graph.vertexCount();
+        if (n > maxVertices) {
+            release();
+            return false;
+        }
+        if (!built) {
+            rebuild();
+        } else {
+            coverNewVertices();
+        }
+        return true;
+    }
+
+    private void rebuild() {
+        int n = graph.vertexCount();
+        descendants = new BitSet[n];
+        ancestors = new BitSet[n];
+        for (int id = 0; id < n; id++) {
+            descendants[id] = new BitSet(n);
+            ancestors[id] = new BitSet(n);
+        }
+        covered = n;
+
+        int[] order = graph.topologicalIds();
+        for (int i = order.length - 1; i >= 0; i--) {
+            int v = order[i];
+            BitSet reach = descendants[v];
+            int degree = graph.outDegree(v);
+            for (int k = 0; k < degree; k++) {
+                int w = graph.outNeighbor(v, k);
+                reach.set(w);
+                reach.or(descendants[w]);
+            }
+        }
+        for (int v : order) {
+            BitSet reach = ancestors[v];
+            int degree = graph.inDegree(v);
+            for (int k = 0; k < degree; k++) {
+                int u = graph.inNeighbor(v, k);
+                reach.set(u);
+                reach.or(ancestors[u]);
+            }
+        }
+        built = true;
+    }
+
+    // vertices added since the last build have no edges yet
+    private void coverNewVertices() {
+        int n = graph.vertexCount();
+        if (n <= covered) return;
+        descendants = Arrays.copyOf(descendants, n);
+        ancestors = Arrays.copyOf(ancestors, n);
+        for (int id = covered; id < n; id++) {
+            descendants[id] = new BitSet();
+            ancestors[id] = new BitSet();
+        }
+        covered = n;
+    }
+
+    private void release() {
+        descendants = new BitSet[0];
+        ancestors = new BitSet[0];
+        covered = 0;
+        built = false;
+    }
+
+    private int[] searchFrom(int v, boolean forward) {
+        GraphTraversal traversal = graph.traversal();
+        traversal.search(v, forward, null, -1);
+        int count = traversal.visitedCount();
+        int[] result = new int[count - 1];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            int w = traversal.visitedAt(i);
+            if (w != v) result[k++] = w;
+        }
+        return result;
+    }
+}
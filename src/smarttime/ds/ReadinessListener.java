@@ -0,0 +1,12 @@
+package smarttime.ds;
+
+import smarttime.model.Task;
+
+/**
+ * Callback from TaskGraph when a task may have become ready (blocking and
+ * with no blocking prerequisite left) or stopped being ready. The listener
+ * asks the graph for the current state with isReady().
+ */
+public interface ReadinessListener {
+    void readinessChanged(Task task);
+}
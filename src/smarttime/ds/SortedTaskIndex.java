@@ -0,0 +1,341 @@
+package smarttime.ds;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import smarttime.config.AppConfig;
+import smarttime.model.Task;
+
+/**
+ * Tasks kept permanently sorted by one comparator, backed by a treap
+ * (randomised balanced BST) whose nodes also store their subtree size.
+ *
+ *  - add / remove:      O(log n) expected
+ *  - get(i) (by rank):  O(log n) expected
+ *  - in-order walk:     O(1) amortised per task
+ *
+ * Ties under the given order are broken by task id (and, for duplicate
+ * ids, identity), so every task has one exact position and can be found
+ * again in O(log n). The comparator reads live task fields, so a task
+ * must be removed BEFORE its sort fields change and added back afterwards.
+ */
+public class SortedTaskIndex {
+
+    private static final class Node {
+        final Task task;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+    private static final ParallelTaskSorter PARALLEL = new ParallelTaskSorter();
+
+    private final Comparator<Task> baseOrder;
+    private final Comparator<Task> order; // baseOrder + identity tie-break
+    private final Random random = new Random();
+    private Node root;
+    private int modCount;
+
+    public SortedTaskIndex(Comparator<Task> order) {
+        this.baseOrder = order;
+        this.order = order.thenComparing(SortedTaskIndex::compareIdentity);
+    }
+
+    public Comparator<Task> getOrder() {
+        return baseOrder;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public void add(Task task) {
+        int rank = upperBound(task);
+        Node[] parts = split(root, rank);
+        root = merge(merge(parts[0], new Node(task, random.nextInt())), parts[1]);
+        modCount++;
+    }
+
+    /**
+     * Remove this exact task (by identity). Its sort fields must still be
+     * the ones it had when it was added.
+     *
+     * @return false if the task is not in the index
+     */
+    public boolean remove(Task task) {
+        int rank = indexOf(task);
+        if (rank < 0) return false;
+        removeAt(rank);
+        return true;
+    }
+
+    /** Rank of this exact task, or -1. */
+    public int indexOf(Task task) {
+        int rank = lowerBound(task);
+        int n = size();
+        while (rank < n) {
+            Task candidate = get(rank);
+            if (candidate == task) return rank;
+            if (order.compare(candidate, task) != 0) break;
+            rank++;
+        }
+        return -1;
+    }
+
+    public Task get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.task;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Replace the contents with the given tasks. Known orderings are
+     * sorted with LSD radix passes (identity key first, then the stable
+     * TaskRadixSort pass for the order), other orderings with introsort,
+     * or with ParallelTaskSorter from AppConfig.PARALLEL_SORT_THRESHOLD
+     * tasks up; the balanced tree itself is then built in O(n).
+     */
+    public void buildFrom(Collection<Task> tasks) {
+        Task[] a = tasks.toArray(new Task[0]);
+        boolean sorted = false;
+        if (TaskRadixSort.isKnownOrder(baseOrder) && a.length > 1) {
+            long[] keys = new long[a.length];
+            for (int i = 0; i < a.length; i++) {
+                keys[i] = identityKey(a[i]);
+            }
+            TaskRadixSort.radixSort(a, keys);
+            sorted = TaskRadixSort.sortArray(a, baseOrder);
+        }
+        if (!sorted && a.length >= AppConfig.PARALLEL_SORT_THRESHOLD) {
+            PARALLEL.sortArray(a, order);
+        } else if (!sorted) {
+            IntroTaskSorter.sortRange(a, 0, a.length, order);
+        }
+        root = build(a, 0, a.length, 0);
+        modCount++;
+    }
+
+    /**
+     * Copy of the tasks at ranks [offset, offset + limit), in order.
+     * O(log n + limit): one descent to the first rank, then an in-order walk.
+     */
+    public List<Task> range(int offset, int limit) {
+        int from = Math.max(0, offset);
+        int count = Math.max(0, Math.min(limit, size() - from));
+        List<Task> page = new ArrayList<>(count);
+        Iterator<Task> it = new InOrderIterator(from);
+        while (page.size() < count && it.hasNext()) {
+            page.add(it.next());
+        }
+        return page;
+    }
+
+    /** Read-only live view of the index in sorted order. */
+    public List<Task> asList() {
+        return new View();
+    }
+
+    // number of tasks strictly less than key
+    private int lowerBound(Task key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (order.compare(node.task, key) < 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    // number of tasks less than or equal to key
+    private int upperBound(Task key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (order.compare(node.task, key) <= 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    private void removeAt(int rank) {
+        Node[] left = split(root, rank);
+        Node[] right = split(left[1], 1);
+        root = merge(left[0], right[1]);
+        modCount++;
+    }
+
+    // split into (first k nodes, rest)
+    private static Node[] split(Node node, int k) {
+        if (node == null) return new Node[] {null, null};
+        int leftSize = size(node.left);
+        if (k <= leftSize) {
+            Node[] parts = split(node.left, k);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+            return parts;
+        }
+        Node[] parts = split(node.right, k - leftSize - 1);
+        node.right = parts[0];
+        update(node);
+        parts[0] = node;
+        return parts;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority >= b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    // balanced build; priorities drop by depth so the heap property holds
+    private Node build(Task[] tasks, int lo, int hi, int depth) {
+        if (lo >= hi) return null;
+        int mid = (lo + hi) >>> 1;
+        int band = Math.max(0, 31 - depth);
+        Node node = new Node(tasks[mid], (band << 24) | random.nextInt(1 << 24));
+        node.left = build(tasks, lo, mid, depth + 1);
+        node.right = build(tasks, mid + 1, hi, depth + 1);
+        update(node);
+        return node;
+    }
+
+    // id first, identity hash (unsigned) for the rare duplicate id
+    private static int compareIdentity(Task a, Task b) {
+        return Long.compare(identityKey(a), identityKey(b));
+    }
+
+    private static long identityKey(Task t) {
+        return ((long) t.getId() << 32) | (System.identityHashCode(t) & 0xFFFF_FFFFL);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private final class View extends AbstractList<Task> {
+
+        @Override
+        public Task get(int index) {
+            return SortedTaskIndex.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return SortedTaskIndex.this.size();
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new InOrderIterator();
+        }
+    }
+
+    private final class InOrderIterator implements Iterator<Task> {
+
+        private final Deque<Node> path = new ArrayDeque<>();
+        private final int expectedModCount = modCount;
+
+        InOrderIterator() {
+            pushLeft(root);
+        }
+
+        // start at the given rank: keep every ancestor we pass on the left
+        InOrderIterator(int rank) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (rank < leftSize) {
+                    path.push(node);
+                    node = node.left;
+                } else if (rank == leftSize) {
+                    path.push(node);
+                    return;
+                } else {
+                    rank -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = path.pop();
+            pushLeft(node.right);
+            return node.task;
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+        }
+    }
+}
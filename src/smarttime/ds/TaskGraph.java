@@ -2,6 +2,8 @@ package smarttime.ds;
 
 import java.util.*;
 
+import smarttime.config.AppConfig;
+import smarttime.model.Dependency;
 import smarttime.model.Task;
 
 /**
@@ -9,43 +11,415 @@ import smarttime.model.Task;
  * Edge: prerequisite -> dependent.
  *
  * Uses:
- *  - hasCycle(): recursive DFS to detect cycles
+ *  - hasCycle(): iterative DFS to detect cycles
  *  - canStart(): check if all prerequisites of a task are completed
+ *
+ * Every task gets a dense int id on insertion, found again through an
+ * IntIntMap keyed by task id rather than a Task -> Integer hash map (so
+ * task ids must be unique within a graph). Dependents and
+ * prerequisites are kept in compressed-sparse-row int arrays with a small
+ * delta buffer for recent edges (see CsrAdjacency): about 16 bytes per
+ * edge instead of a boxed list entry in two hash maps. All traversals
+ * run through GraphTraversal with int work stacks and int-indexed visit
+ * state instead of recursion over Task maps.
+ *
+ * For every task the graph also counts the prerequisites that still block
+ * it (see setBlocking()), so "can this task start?" is a constant-time
+ * read instead of a scan over all tasks.
+ *
+ * addEdge() keeps a topological order of all vertices up to date
+ * (Pearce-Kelly online algorithm). An edge that agrees with the current
+ * order is accepted in O(1); otherwise only the vertices whose position
+ * lies between the two endpoints are searched and re-ordered, instead of
+ * running hasCycle() over the whole graph.
+ *
+ * removeEdge() is O(1) once the edge is found among the source's
+ * dependents, and removeVertex() is O(degree): each adjacency entry
+ * stores the index of its twin on the other side. A removed vertex
+ * releases its Task and buffers and its id goes on a free list for the
+ * next addVertex(), so a long session does not keep deleted tasks alive.
+ * Freed CSR slots and topological positions are reclaimed periodically.
+ *
+ * addDependencies() inserts a whole batch with a single validation pass
+ * (Tarjan's SCC algorithm) instead of one cycle check per edge.
+ *
+ * Transitive queries (reaches(), getAllDependents(), getAllPrerequisites())
+ * go through a ReachabilityIndex: a BitSet transitive closure maintained
+ * on every addEdge() for graphs up to REACHABILITY_INDEX_MAX_VERTICES,
+ * and a plain traversal above that.
  */
-public class TaskGraph implements GraphInterface<Task> {
+public class TaskGraph implements GraphInterface<Task>, IntGraphInterface {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // task id -> dense vertex id; tasks[vertex id] leads back to the task
+    private final IntIntMap vertexByTaskId = new IntIntMap(INITIAL_CAPACITY);
+    private Task[] tasks = new Task[INITIAL_CAPACITY];  // null = free id
+    private int vertexCount;     // ids handed out, live or free
+    private int liveCount;
+
+    // ids of removed vertices, reused before new ids are handed out
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    // id -> ids of dependents / prerequisites
+    private final CsrAdjacency out = new CsrAdjacency(INITIAL_CAPACITY);
+    private final CsrAdjacency in = new CsrAdjacency(INITIAL_CAPACITY);
+
+    // id -> position in the topological order (unique per vertex)
+    private int[] topoIndex = new int[INITIAL_CAPACITY];
+    private int firstTopoIndex;  // smallest index handed out so far
+    private int nextTopoIndex;   // one past the largest
+
+    // id -> does this task still hold back its dependents (not completed)?
+    private boolean[] blocking = new boolean[INITIAL_CAPACITY];
+    // id -> number of prerequisite edges from blocking tasks
+    private int[] blockedBy = new int[INITIAL_CAPACITY];
 
-    // from -> list of dependents
-    private final Map<Task, List<Task>> adj = new HashMap<>();
-    // task -> list of prerequisites
-    private final Map<Task, List<Task>> prereqMap = new HashMap<>();
+    private final GraphTraversal traversal = new GraphTraversal(this);
+    private ReadinessListener readinessListener;
+    private final ReachabilityIndex reachability =
+            new ReachabilityIndex(this, AppConfig.REACHABILITY_INDEX_MAX_VERTICES);
 
     @Override
     public void addVertex(Task v) {
-        adj.putIfAbsent(v, new ArrayList<>());
-        prereqMap.putIfAbsent(v, new ArrayList<>());
+        addVertex(v, false);
+    }
+
+    // new vertices go to the end of the order, or to the front if asked
+    private int addVertex(Task v, boolean atFront) {
+        int existing = vertexOf(v);
+        if (existing >= 0) return existing;
+        reserveTaskId(v);
+
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            ensureVertexCapacity(vertexCount + 1);
+            id = vertexCount++;
+        }
+        liveCount++;
+        vertexByTaskId.putNew(v.getId(), id);
+        tasks[id] = v;
+        out.initVertex(id);
+        in.initVertex(id);
+        topoIndex[id] = atFront ? --firstTopoIndex : nextTopoIndex++;
+        blocking[id] = true;
+        blockedBy[id] = 0;
+        fireReadinessChanged(id);
+        return id;
     }
 
     @Override
     public void addEdge(Task from, Task to) {
-        addVertex(from);
-        addVertex(to);
+        // a brand-new prerequisite can simply be placed first in the order
+        int u = addVertex(from, vertexOf(to) >= 0);
+        int v = addVertex(to, false);
 
         // prevent self dependency A → A
         if (from == to) {
             throw new IllegalArgumentException("A task cannot depend on itself.");
         }
 
-        // temporarily add edge
-        adj.get(from).add(to);
-        prereqMap.get(to).add(from);
+        int lower = topoIndex[v];
+        int upper = topoIndex[u];
+        if (lower < upper) {
+            // the edge goes against the current order: search only the
+            // vertices positioned between 'to' and 'from'
+            if (traversal.search(v, true, w -> topoIndex[w] <= upper, u)) {
+                throw new IllegalArgumentException("Adding this dependency creates a cycle.");
+            }
+            int[] forward = traversal.visitedVertices();
+            traversal.search(u, false, w -> topoIndex[w] >= lower, -1);
+            int[] backward = traversal.visitedVertices();
+            reorder(backward, forward);
+        }
+
+        link(u, v);
+        reachability.edgeAdded(u, v);
+        if (blocking[u] && blockedBy[v]++ == 0 && blocking[v]) {
+            fireReadinessChanged(v);
+        }
+        if (out.needsCompaction()) {
+            compact();
+        }
+    }
+
+    /**
+     * Insert a batch of dependencies, validated once for the whole batch.
+     *
+     * If every edge agrees with the current topological order, none can
+     * close a cycle and they are simply linked. Otherwise all edges are
+     * linked tentatively, Tarjan's SCC algorithm checks the graph once in
+     * O(V + E) and Kahn's algorithm rebuilds the order. If a cycle is
+     * found the batch is rolled back (edges and any tasks it introduced)
+     * and a DependencyCycleException reports one cycle per offending
+     * strongly connected component.
+     */
+    public void addDependencies(Collection<Dependency> batch) {
+        for (Dependency d : batch) {
+            if (d.getPrerequisite() == d.getDependent()) {
+                throw new IllegalArgumentException("A task cannot depend on itself.");
+            }
+        }
+
+        List<Task> introduced = new ArrayList<>();
+        int[] from = new int[batch.size()];
+        int[] to = new int[batch.size()];
+        int count = 0;
+        boolean ordered = true;
+        for (Dependency d : batch) {
+            Task prerequisite = d.getPrerequisite();
+            Task dependent = d.getDependent();
+            int u = vertexOf(prerequisite);
+            int v = vertexOf(dependent);
+            if (u < 0) {
+                u = addVertex(prerequisite, v >= 0);
+                introduced.add(prerequisite);
+            }
+            if (v < 0) {
+                v = addVertex(dependent, false);
+                introduced.add(dependent);
+            }
+
+            ordered &= topoIndex[u] < topoIndex[v];
+            from[count] = u;
+            to[count] = v;
+            count++;
+        }
+        linkAll(from, to, count);
+
+        if (!ordered) {
+            int[] component = new int[vertexCount];
+            int components = traversal.stronglyConnectedComponents(component);
+            if (components < liveCount) {
+                List<List<Task>> cycles = findCycles(component, components);
+                // newest first, so each edge is the last entry on both sides
+                for (int i = count - 1; i >= 0; i--) {
+                    unlinkOutEdge(from[i], out.degree(from[i]) - 1);
+                }
+                for (Task task : introduced) {
+                    removeVertex(task);
+                }
+                throw new DependencyCycleException(cycles);
+            }
+            int[] order = traversal.topologicalOrder();
+            for (int i = 0; i < order.length; i++) {
+                topoIndex[order[i]] = i;
+            }
+            firstTopoIndex = 0;
+            nextTopoIndex = order.length;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (blocking[from[i]] && blockedBy[to[i]]++ == 0 && blocking[to[i]]) {
+                fireReadinessChanged(to[i]);
+            }
+        }
+        reachability.invalidate();
+        if (out.needsCompaction()) {
+            compact();
+        }
+    }
+
+    // one concrete cycle for every component with more than one vertex
+    private List<List<Task>> findCycles(int[] component, int components) {
+        int[] size = new int[components];
+        int[] representative = new int[components];
+        for (int id = 0; id < vertexCount; id++) {
+            int c = component[id];
+            if (c >= 0 && size[c]++ == 0) representative[c] = id;
+        }
+        List<List<Task>> cycles = new ArrayList<>();
+        for (int c = 0; c < components; c++) {
+            if (size[c] < 2) continue;
+            int[] cycle = traversal.cycleThrough(representative[c], component);
+            cycles.add(toTasks(cycle, cycle.length));
+        }
+        return cycles;
+    }
+
+    // link a batch: a large one is merged straight into fresh CSR arrays
+    private void linkAll(int[] from, int[] to, int count) {
+        if (!out.prefersBulkAppend(count)) {
+            for (int i = 0; i < count; i++) {
+                link(from[i], to[i]);
+            }
+            return;
+        }
+
+        // index every new edge will get on each side
+        int[] outIndex = new int[count];
+        int[] inIndex = new int[count];
+        int[] next = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) next[v] = out.degree(v);
+        for (int i = 0; i < count; i++) outIndex[i] = next[from[i]]++;
+        for (int v = 0; v < vertexCount; v++) next[v] = in.degree(v);
+        for (int i = 0; i < count; i++) inIndex[i] = next[to[i]]++;
+
+        out.appendAll(vertexCount, from, to, inIndex, count);
+        in.appendAll(vertexCount, to, from, outIndex, count);
+    }
+
+    // each side records the other side's index of the same edge
+    private void link(int u, int v) {
+        int outIndex = out.degree(u);
+        out.add(u, v, in.degree(v));
+        in.add(v, u, outIndex);
+    }
 
-        // check if cycle is formed
-        if (hasCycle()) {
-            // rollback
-            adj.get(from).remove(to);
-            prereqMap.get(to).remove(from);
+    /**
+     * Remove one dependency from -> to (one copy, if it was added twice).
+     * O(degree of from) to find it, O(1) to unlink it.
+     *
+     * @return false if there was no such edge
+     */
+    @Override
+    public boolean removeEdge(Task from, Task to) {
+        int u = vertexOf(from);
+        int v = vertexOf(to);
+        if (u < 0 || v < 0) return false;
 
-            throw new IllegalArgumentException("Adding this dependency creates a cycle.");
+        int degree = out.degree(u);
+        for (int i = 0; i < degree; i++) {
+            if (out.neighbor(u, i) == v) {
+                removeOutEdge(u, i);
+                reachability.invalidate();
+                if (out.needsCompaction()) {
+                    compact();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove a task and all of its dependencies in O(degree). Dependents
+     * it was still blocking are unlocked; its id is recycled.
+     *
+     * @return false if the task was not in the graph
+     */
+    @Override
+    public boolean removeVertex(Task task) {
+        int id = vertexOf(task);
+        if (id < 0) return false;
+
+        // stop blocking first: dependents are unlocked in one pass and the
+        // edge removals below no longer touch any counter
+        setBlocking(task, false);
+        for (int i = out.degree(id) - 1; i >= 0; i--) {
+            removeOutEdge(id, i);
+        }
+        for (int i = in.degree(id) - 1; i >= 0; i--) {
+            removeOutEdge(in.neighbor(id, i), in.twin(id, i));
+        }
+        reachability.invalidate();
+
+        vertexByTaskId.remove(task.getId());
+        tasks[id] = null;
+        out.initVertex(id);
+        in.initVertex(id);
+        blockedBy[id] = 0;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        liveCount--;
+
+        if (out.needsCompaction() || in.needsCompaction()) {
+            compact();
+        }
+        if (nextTopoIndex - firstTopoIndex > 2 * liveCount + INITIAL_CAPACITY) {
+            renumberTopoIndex();
+        }
+        return true;
+    }
+
+    // unlink dependent i of u and release the lock it held on it
+    private void removeOutEdge(int u, int i) {
+        int v = out.neighbor(u, i);
+        unlinkOutEdge(u, i);
+        if (blocking[u] && --blockedBy[v] == 0 && blocking[v]) {
+            fireReadinessChanged(v);
+        }
+    }
+
+    // unlink dependent i of u from both adjacencies, fixing moved twins
+    private void unlinkOutEdge(int u, int i) {
+        int v = out.neighbor(u, i);
+        int j = out.twin(u, i);
+
+        out.removeAt(u, i);
+        if (i < out.degree(u)) {
+            in.setTwin(out.neighbor(u, i), out.twin(u, i), i);
+        }
+        in.removeAt(v, j);
+        if (j < in.degree(v)) {
+            out.setTwin(in.neighbor(v, j), in.twin(v, j), j);
+        }
+    }
+
+    // close the gaps left by removed vertices: positions become 0..live-1
+    private void renumberTopoIndex() {
+        int[] order = topologicalIds();
+        for (int i = 0; i < order.length; i++) {
+            topoIndex[order[i]] = i;
+        }
+        firstTopoIndex = 0;
+        nextTopoIndex = order.length;
+    }
+
+    /** Fold the delta buffers of recent edges into the CSR arrays. */
+    public void compact() {
+        out.compact(vertexCount);
+        in.compact(vertexCount);
+    }
+
+    /** Number of tasks currently in the graph. */
+    public int taskCount() {
+        return liveCount;
+    }
+
+    public int edgeCount() {
+        return out.edgeCount();
+    }
+
+    /** Approximate heap bytes used by the adjacency arrays (not the id map). */
+    public long estimatedAdjacencyBytes() {
+        return out.estimatedBytes() + in.estimatedBytes() + 4L * topoIndex.length + 8L * tasks.length;
+    }
+
+    /**
+     * Give the affected vertices their new positions: all ancestors of
+     * 'from' (backward) move before all descendants of 'to' (forward),
+     * reusing the same set of topoIndex slots.
+     */
+    private void reorder(int[] backward, int[] forward) {
+        sortByTopoIndex(backward);
+        sortByTopoIndex(forward);
+
+        int[] slots = new int[backward.length + forward.length];
+        int i = 0;
+        for (int w : backward) slots[i++] = topoIndex[w];
+        for (int w : forward) slots[i++] = topoIndex[w];
+        Arrays.sort(slots);
+
+        i = 0;
+        for (int w : backward) topoIndex[w] = slots[i++];
+        for (int w : forward) topoIndex[w] = slots[i++];
+    }
+
+    // sort vertex ids by their current position, via packed (position, id) longs
+    private void sortByTopoIndex(int[] vertices) {
+        long[] packed = new long[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            packed[i] = ((long) topoIndex[vertices[i]] << 32) | vertices[i];
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = (int) packed[i];
         }
     }
 
@@ -65,53 +439,167 @@ public class TaskGraph implements GraphInterface<Task> {
 
     @Override
     public List<Task> getNeighbors(Task v) {
-        return adj.getOrDefault(v, Collections.emptyList());
+        int id = vertexOf(v);
+        return id < 0 ? Collections.emptyList() : neighborsOf(out, id);
     }
 
     /**
      * Direct prerequisites of a given task.
      */
     public List<Task> getPrerequisites(Task v) {
-        return prereqMap.getOrDefault(v, Collections.emptyList());
+        int id = vertexOf(v);
+        return id < 0 ? Collections.emptyList() : neighborsOf(in, id);
     }
 
     /**
-     * Recursive DFS-based cycle detection.
-     * Colors:
-     *   0 = unvisited
-     *   1 = visiting
-     *   2 = done
+     * Iterative DFS-based cycle detection (see GraphTraversal.hasCycle).
      */
     @Override
     public boolean hasCycle() {
-        Map<Task, Integer> color = new HashMap<>();
+        return traversal.hasCycle();
+    }
 
-        for (Task t : adj.keySet()) {
-            if (dfsCycle(t, color)) {
-                return true;
-            }
+    /** Is there a dependency path from -> ... -> to? */
+    public boolean reaches(Task from, Task to) {
+        int u = vertexOf(from);
+        int v = vertexOf(to);
+        return u >= 0 && v >= 0 && reachability.reaches(u, v);
+    }
+
+    /** Every task transitively blocked by the given one. */
+    public List<Task> getAllDependents(Task v) {
+        int id = vertexOf(v);
+        if (id < 0) return Collections.emptyList();
+        int[] found = reachability.descendantsOf(id);
+        return toTasks(found, found.length);
+    }
+
+    /** Every transitive prerequisite of the given task. */
+    public List<Task> getAllPrerequisites(Task v) {
+        int id = vertexOf(v);
+        if (id < 0) return Collections.emptyList();
+        int[] found = reachability.ancestorsOf(id);
+        return toTasks(found, found.length);
+    }
+
+    /** All tasks, every prerequisite before its dependents. */
+    public List<Task> topologicalOrder() {
+        int[] order = traversal.topologicalOrder();
+        if (order == null) {
+            throw new IllegalStateException("Dependency graph has a cycle.");
         }
-        return false;
+        return toTasks(order, order.length);
     }
 
-    private boolean dfsCycle(Task v, Map<Task, Integer> color) {
-        int c = color.getOrDefault(v, 0);
-        if (c == 1) {
-            // back edge → cycle
-            return true;
+    /**
+     * Vertex ids in the maintained topological order, in O(V): the
+     * positions handed out form one range (with gaps only where vertices
+     * were removed), so ids are bucketed by position instead of sorted.
+     */
+    public int[] topologicalIds() {
+        int[] slots = new int[nextTopoIndex - firstTopoIndex];
+        Arrays.fill(slots, -1);
+        for (int id = 0; id < vertexCount; id++) {
+            if (tasks[id] != null) slots[topoIndex[id] - firstTopoIndex] = id;
         }
-        if (c == 2) {
-            return false;
+        if (liveCount == slots.length) return slots;
+
+        // removed vertices left gaps
+        int[] order = new int[liveCount];
+        int k = 0;
+        for (int id : slots) {
+            if (id >= 0) order[k++] = id;
         }
+        return order;
+    }
 
-        color.put(v, 1); // visiting
-        for (Task nb : getNeighbors(v)) {
-            if (dfsCycle(nb, color)) {
-                return true;
+    /** Position of a vertex in the maintained topological order. */
+    public int topoIndexOf(int id) {
+        return topoIndex[id];
+    }
+
+    /**
+     * Declare whether a task still holds back its dependents. New vertices
+     * start out blocking; the caller flips this when the task is completed
+     * (false), re-opened (true), or leaves the task list. Each change costs
+     * O(number of dependents).
+     */
+    public void setBlocking(Task task, boolean isBlocking) {
+        int id = vertexOf(task);
+        if (id < 0 || blocking[id] == isBlocking) return;
+
+        blocking[id] = isBlocking;
+        if (blockedBy[id] == 0) {
+            fireReadinessChanged(id);
+        }
+        // a dependent flips between locked and unlocked only when its
+        // counter moves between 0 and 1
+        int delta = isBlocking ? 1 : -1;
+        int threshold = isBlocking ? 1 : 0;
+        int degree = out.degree(id);
+        for (int i = 0; i < degree; i++) {
+            int w = out.neighbor(id, i);
+            blockedBy[w] += delta;
+            if (blockedBy[w] == threshold && blocking[w]) {
+                fireReadinessChanged(w);
             }
         }
-        color.put(v, 2); // done
-        return false;
+    }
+
+    /**
+     * Ready = still blocking (present and not completed) and unlocked.
+     * Exactly these tasks belong in the recommendation heap.
+     */
+    public boolean isReady(Task task) {
+        int id = vertexOf(task);
+        return id >= 0 && isReady(id);
+    }
+
+    public boolean isReady(int id) {
+        return blocking[id] && blockedBy[id] == 0;
+    }
+
+    public boolean isBlocking(int id) {
+        return blocking[id];
+    }
+
+    public int countBlockingPrerequisites(int id) {
+        return blockedBy[id];
+    }
+
+    /** All ready tasks, in id order. */
+    public List<Task> readyTasks() {
+        List<Task> result = new ArrayList<>();
+        for (int id = 0; id < vertexCount; id++) {
+            if (isReady(id)) result.add(tasks[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Register the (single) listener told about readiness changes caused
+     * by addVertex(), addEdge() and setBlocking(). Pass null to detach.
+     */
+    public void setReadinessListener(ReadinessListener listener) {
+        this.readinessListener = listener;
+    }
+
+    private void fireReadinessChanged(int id) {
+        if (readinessListener != null) {
+            readinessListener.readinessChanged(tasks[id]);
+        }
+    }
+
+    /** O(1): true if no prerequisite of the task is still blocking. */
+    public boolean isUnlocked(Task task) {
+        int id = vertexOf(task);
+        return id < 0 || blockedBy[id] == 0;
+    }
+
+    /** Number of prerequisites of the task that are still blocking. */
+    public int countBlockingPrerequisites(Task task) {
+        int id = vertexOf(task);
+        return id < 0 ? 0 : blockedBy[id];
     }
 
     /**
@@ -119,15 +607,103 @@ public class TaskGraph implements GraphInterface<Task> {
      * Returns true if ALL prerequisites are in the completed set.
      */
     public boolean canStart(Task t, Set<Task> completed) {
-        List<Task> prereqs = prereqMap.getOrDefault(t, Collections.emptyList());
-        if (prereqs.isEmpty()) {
+        int id = vertexOf(t);
+        if (id < 0) {
             return true;
         }
-        for (Task p : prereqs) {
-            if (!completed.contains(p)) {
+        for (int i = 0; i < in.degree(id); i++) {
+            if (!completed.contains(tasks[in.neighbor(id, i)])) {
                 return false;
             }
         }
         return true;
     }
-}
\ No newline at end of file
+
+    // INT VIEW (used by GraphTraversal and other int-indexed algorithms)
+
+    /** The traversal engine bound to this graph, for reuse by callers. */
+    public GraphTraversal traversal() {
+        return traversal;
+    }
+
+    /** Dense id of a task, or -1 if it is not in the graph. */
+    public int idOf(Task task) {
+        return vertexOf(task);
+    }
+
+    private int vertexOf(Task task) {
+        int id = vertexByTaskId.get(task.getId());
+        return id >= 0 && tasks[id] == task ? id : -1;
+    }
+
+    // a task about to be added must not share its id with one in the graph
+    private void reserveTaskId(Task task) {
+        int key = task.getId();
+        if (vertexByTaskId.get(key) != IntIntMap.ABSENT) {
+            throw new IllegalArgumentException("Another task with id " + key + " is already in the graph.");
+        }
+    }
+
+    public Task taskAt(int id) {
+        return tasks[id];
+    }
+
+    /** Size of the id space; ids of removed vertices are free until reused. */
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public boolean containsVertex(int v) {
+        return tasks[v] != null;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return out.degree(v);
+    }
+
+    @Override
+    public int outNeighbor(int v, int i) {
+        return out.neighbor(v, i);
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return in.degree(v);
+    }
+
+    @Override
+    public int inNeighbor(int v, int i) {
+        return in.neighbor(v, i);
+    }
+
+    private List<Task> neighborsOf(CsrAdjacency adjacency, int id) {
+        int degree = adjacency.degree(id);
+        List<Task> result = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i++) {
+            result.add(tasks[adjacency.neighbor(id, i)]);
+        }
+        return result;
+    }
+
+    private List<Task> toTasks(int[] vertexIds, int count) {
+        List<Task> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(tasks[vertexIds[i]]);
+        }
+        return result;
+    }
+
+    private void ensureVertexCapacity(int required) {
+        if (required <= tasks.length) return;
+        int capacity = Math.max(required, tasks.length * 2);
+        tasks = Arrays.copyOf(tasks, capacity);
+        out.ensureCapacity(capacity);
+        in.ensureCapacity(capacity);
+        topoIndex = Arrays.copyOf(topoIndex, capacity);
+        blocking = Arrays.copyOf(blocking, capacity);
+        blockedBy = Arrays.copyOf(blockedBy, capacity);
+    }
+}
@@ -0,0 +1,269 @@
+package smarttime.ds;
+
+import smarttime.model.Task;
+
+import java.lang.reflect.Array;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Primary index of tasks by id: an open-addressing hash table over
+ * primitive int keys (linear probing, no boxing), so get, contains and
+ * remove are O(1) on average.
+ *
+ * Removed slots become tombstones that lookups probe past and inserts
+ * reuse; the table is rehashed when live entries plus tombstones pass
+ * half its capacity. Slots are also chained in insertion order, so
+ * values() iterates in the order tasks were added, like the list it
+ * replaces.
+ */
+public class TaskIdMap {
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+
+    private int[] keys;
+    private Task[] values;
+    private byte[] state;
+    // insertion-order links between slots; -1 ends the chain
+    private int[] before;
+    private int[] after;
+    private int head = -1;
+    private int tail = -1;
+
+    private int size;
+    private int tombstones;
+    private int modCount;
+
+    private final Collection<Task> valuesView = new Values();
+
+    public TaskIdMap() {
+        this(16);
+    }
+
+    public TaskIdMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /** The task with this id, or null. */
+    public Task get(int id) {
+        int slot = find(id);
+        return slot < 0 ? null : values[slot];
+    }
+
+    public boolean containsKey(int id) {
+        return find(id) >= 0;
+    }
+
+    /** True if this exact task is indexed under its id. */
+    public boolean contains(Task task) {
+        return task != null && get(task.getId()) == task;
+    }
+
+    /**
+     * Index a task under its id. Returns false (and changes nothing) if
+     * the id is already taken.
+     */
+    public boolean add(Task task) {
+        int id = task.getId();
+        if (find(id) >= 0) return false;
+
+        if ((size + tombstones + 1) * 2 > keys.length) {
+            // grow only when live entries need it; otherwise just sweep tombstones
+            rehash(size + 1 > keys.length / 4 ? keys.length * 2 : keys.length);
+        }
+        int slot = freeSlot(id);
+        if (state[slot] == DELETED) tombstones--;
+        keys[slot] = id;
+        values[slot] = task;
+        state[slot] = FULL;
+        link(slot);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /** Remove the task with this id; returns it, or null if there was none. */
+    public Task remove(int id) {
+        int slot = find(id);
+        if (slot < 0) return null;
+
+        Task task = values[slot];
+        unlink(slot);
+        values[slot] = null;
+        state[slot] = DELETED;
+        size--;
+        tombstones++;
+        modCount++;
+        return task;
+    }
+
+    /** Remove this exact task; false if it is not the one indexed under its id. */
+    public boolean remove(Task task) {
+        if (!contains(task)) return false;
+        remove(task.getId());
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        allocate(16);
+        head = tail = -1;
+        size = 0;
+        tombstones = 0;
+        modCount++;
+    }
+
+    /** Live view of the tasks in insertion order. */
+    public Collection<Task> values() {
+        return valuesView;
+    }
+
+    // slot holding id, or -1
+    private int find(int id) {
+        int mask = keys.length - 1;
+        for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+            byte s = state[i];
+            if (s == EMPTY) return -1;
+            if (s == FULL && keys[i] == id) return i;
+        }
+    }
+
+    // first tombstone or empty slot on id's probe path (id is known absent)
+    private int freeSlot(int id) {
+        int mask = keys.length - 1;
+        for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+            if (state[i] != FULL) return i;
+        }
+    }
+
+    private void link(int slot) {
+        before[slot] = tail;
+        after[slot] = -1;
+        if (tail < 0) {
+            head = slot;
+        } else {
+            after[tail] = slot;
+        }
+        tail = slot;
+    }
+
+    private void unlink(int slot) {
+        int b = before[slot];
+        int a = after[slot];
+        if (b < 0) head = a; else after[b] = a;
+        if (a < 0) tail = b; else before[a] = b;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Task[] oldValues = values;
+        int[] oldAfter = after;
+        int slot = head;
+
+        allocate(capacity);
+        head = tail = -1;
+        tombstones = 0;
+        for (; slot >= 0; slot = oldAfter[slot]) {
+            int i = freeSlot(oldKeys[slot]);
+            keys[i] = oldKeys[slot];
+            values[i] = oldValues[slot];
+            state[i] = FULL;
+            link(i);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Task[capacity];
+        state = new byte[capacity];
+        before = new int[capacity];
+        after = new int[capacity];
+    }
+
+    // sequential ids would cluster under linear probing; spread them first
+    static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        int n = 16;
+        while (n < expectedSize * 2) n <<= 1;
+        return n;
+    }
+
+    private final class Values extends AbstractCollection<Task> {
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<Task>() {
+                private int next = head;
+                private final int expectedModCount = modCount;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Task next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next < 0) throw new NoSuchElementException();
+                    Task task = values[next];
+                    next = after[next];
+                    return task;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Task && TaskIdMap.this.contains((Task) o);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return fill(new Object[size]);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T[] toArray(T[] a) {
+            if (a.length < size) {
+                a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+            }
+            fill(a);
+            if (a.length > size) a[size] = null;
+            return a;
+        }
+
+        private <T> T[] fill(T[] a) {
+            int i = 0;
+            for (int slot = head; slot >= 0; slot = after[slot]) {
+                @SuppressWarnings("unchecked")
+                T t = (T) values[slot];
+                a[i++] = t;
+            }
+            return a;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package smarttime.ds;
+
+import java.time.LocalDate;
+
+import smarttime.model.Task;
+
+/**
+ * Packs the scheduling fields of a Task into a single long so that the
+ * default priority order (due date, then difficulty, then minutes) can be
+ * checked with one primitive comparison.
+ *
+ * Layout (most significant first):
+ *   bits 63..32  due date as epoch day (signed, null = last)
+ *   bits 31..24  difficulty, clamped to 0..255
+ *   bits 23..0   estimatedMinutes, clamped to 0..16,777,215
+ *
+ * For every realistic task (dates within +-5.8 million years, difficulty
+ * 1-5) comparing packed keys gives exactly the same order as comparing
+ * the fields one by one.
+ */
+public final class TaskKeys {
+
+    public static final int MAX_DIFFICULTY = 0xFF;
+    public static final int MAX_MINUTES = 0xFF_FFFF;
+
+    /** Epoch day used for tasks without a due date, so they sort last. */
+    public static final int NO_DUE_DATE = Integer.MAX_VALUE;
+
+    private TaskKeys() {
+    }
+
+    public static long pack(Task task) {
+        return pack(epochDay(task.getDueDate()), task.getDifficulty(), task.getEstimatedMinutes());
+    }
+
+    public static long pack(int epochDay, int difficulty, int minutes) {
+        long low = ((long) clamp(difficulty, MAX_DIFFICULTY) << 24) | clamp(minutes, MAX_MINUTES);
+        return ((long) epochDay << 32) | low;
+    }
+
+    /** Epoch day of a due date clamped to the int range; null sorts last. */
+    public static int epochDay(LocalDate date) {
+        if (date == null) return NO_DUE_DATE;
+        long day = date.toEpochDay();
+        if (day >= NO_DUE_DATE) return NO_DUE_DATE - 1;
+        if (day < Integer.MIN_VALUE) return Integer.MIN_VALUE;
+        return (int) day;
+    }
+
+    private static int clamp(int value, int max) {
+        if (value < 0) return 0;
+        return Math.min(value, max);
+    }
+}
@@ -0,0 +1,200 @@
+package smarttime.ds;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import smarttime.model.Task;
+
+/**
+ * Non-comparison sorts for the orderings TaskSorter knows about.
+ *
+ *  - DIFFICULTY_ORDER: counting sort over the (tiny) difficulty range
+ *  - DUE_DATE_ORDER:   LSD radix sort on LocalDate.toEpochDay(), nulls last
+ *  - DEFAULT_ORDER:    LSD radix sort on the packed (due date, difficulty,
+ *                      minutes) key from TaskKeys, then ties broken by title
+ *
+ * All passes are stable, so the result equals a stable comparison sort
+ * with the same comparator. Sorts run in O(n) per key byte that actually
+ * differs between tasks; bytes shared by every key are skipped.
+ */
+final class TaskRadixSort {
+
+    // ranges wider than this go through the radix path instead of counting
+    private static final int MAX_COUNTING_RANGE = 1 << 16;
+    private static final int TITLE_INSERTION_CUTOFF = 32;
+
+    private TaskRadixSort() {
+    }
+
+    /**
+     * Sort with a non-comparison algorithm if the comparator is one of
+     * TaskSorter's known orderings and every key fits the fast path.
+     *
+     * @return false if nothing was done and a comparison sort is needed
+     */
+    static boolean trySort(List<Task> tasks, Comparator<Task> comparator) {
+        if (tasks == null || tasks.size() <= 1) return tasks != null;
+        if (!isKnownOrder(comparator)) return false;
+
+        Task[] a = tasks.toArray(new Task[0]);
+        if (!sortArray(a, comparator)) return false;
+        IntroTaskSorter.writeBack(tasks, a);
+        return true;
+    }
+
+    static boolean isKnownOrder(Comparator<Task> comparator) {
+        return comparator == TaskSorter.DIFFICULTY_ORDER
+                || comparator == TaskSorter.DUE_DATE_ORDER
+                || comparator == TaskSorter.DEFAULT_ORDER;
+    }
+
+    /** Array version of trySort(); the array is left untouched on false. */
+    static boolean sortArray(Task[] a, Comparator<Task> comparator) {
+        if (comparator == TaskSorter.DIFFICULTY_ORDER) {
+            return sortByDifficulty(a);
+        }
+        if (comparator == TaskSorter.DUE_DATE_ORDER) {
+            return sortByDueDate(a);
+        }
+        if (comparator == TaskSorter.DEFAULT_ORDER) {
+            return sortByDefaultKey(a);
+        }
+        return false;
+    }
+
+    /** Stable counting sort on difficulty. */
+    static boolean sortByDifficulty(Task[] a) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Task t : a) {
+            min = Math.min(min, t.getDifficulty());
+            max = Math.max(max, t.getDifficulty());
+        }
+
+        if ((long) max - min >= MAX_COUNTING_RANGE) {
+            long[] keys = new long[a.length];
+            for (int i = 0; i < a.length; i++) {
+                keys[i] = a[i].getDifficulty();
+            }
+            radixSort(a, keys);
+            return true;
+        }
+
+        int[] count = new int[max - min + 2];
+        for (Task t : a) {
+            count[t.getDifficulty() - min + 1]++;
+        }
+        for (int i = 1; i < count.length; i++) {
+            count[i] += count[i - 1];
+        }
+        Task[] out = new Task[a.length];
+        for (Task t : a) {
+            out[count[t.getDifficulty() - min]++] = t;
+        }
+        System.arraycopy(out, 0, a, 0, a.length);
+        return true;
+    }
+
+    /** Stable LSD radix sort on the due date's epoch day, nulls last. */
+    static boolean sortByDueDate(Task[] a) {
+        long[] keys = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            LocalDate due = a[i].getDueDate();
+            // null must stay strictly after every real date
+            keys[i] = due == null ? Long.MAX_VALUE : due.toEpochDay();
+        }
+        radixSort(a, keys);
+        return true;
+    }
+
+    /**
+     * Radix sort on the packed default key, then order each run of equal
+     * keys by title. Gives up (returns false) if a task has no due date
+     * or a field outside the packed range.
+     */
+    static boolean sortByDefaultKey(Task[] a) {
+        long[] keys = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            Task t = a[i];
+            if (!fitsPackedKey(t)) return false;
+            keys[i] = TaskKeys.pack(t);
+        }
+        radixSort(a, keys);
+
+        Comparator<Task> byTitle = Comparator.comparing(Task::getTitle, String.CASE_INSENSITIVE_ORDER);
+        int runStart = 0;
+        for (int i = 1; i <= a.length; i++) {
+            if (i == a.length || keys[i] != keys[runStart]) {
+                if (i - runStart > 1) {
+                    sortRun(a, runStart, i, byTitle);
+                }
+                runStart = i;
+            }
+        }
+        return true;
+    }
+
+    private static boolean fitsPackedKey(Task t) {
+        LocalDate due = t.getDueDate();
+        if (due == null) return false;
+        long day = due.toEpochDay();
+        return day > Integer.MIN_VALUE && day < TaskKeys.NO_DUE_DATE
+                && t.getDifficulty() >= 0 && t.getDifficulty() <= TaskKeys.MAX_DIFFICULTY
+                && t.getEstimatedMinutes() >= 0 && t.getEstimatedMinutes() <= TaskKeys.MAX_MINUTES;
+    }
+
+    // stable sort of a small run of equal keys
+    private static void sortRun(Task[] a, int lo, int hi, Comparator<Task> cmp) {
+        if (hi - lo > TITLE_INSERTION_CUTOFF) {
+            Arrays.sort(a, lo, hi, cmp);
+            return;
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            Task x = a[i];
+            int j = i - 1;
+            while (j >= lo && cmp.compare(a[j], x) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    /**
+     * Stable LSD radix sort of a[] by signed keys[], one byte per pass.
+     * keys[] is permuted along with a[].
+     */
+    static void radixSort(Task[] a, long[] keys) {
+        int n = a.length;
+        Task[] tmpTasks = new Task[n];
+        long[] tmpKeys = new long[n];
+        int[] count = new int[257];
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[digit(keys[i], shift) + 1]++;
+            }
+            // every key has the same byte here: nothing to do this pass
+            if (count[digit(keys[0], shift) + 1] == n) continue;
+
+            for (int d = 1; d < count.length; d++) {
+                count[d] += count[d - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                int pos = count[digit(keys[i], shift)]++;
+                tmpTasks[pos] = a[i];
+                tmpKeys[pos] = keys[i];
+            }
+            System.arraycopy(tmpTasks, 0, a, 0, n);
+            System.arraycopy(tmpKeys, 0, keys, 0, n);
+        }
+    }
+
+    // flipping the sign bit makes signed keys order correctly as unsigned bytes
+    private static int digit(long key, int shift) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & 0xFF);
+    }
+}
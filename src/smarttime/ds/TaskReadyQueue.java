@@ -0,0 +1,162 @@
+package smarttime.ds;
+
+import smarttime.model.Task;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recommendation queue that respects dependencies.
+ *
+ * Only ready tasks live in the heap: tasks the graph still marks as
+ * blocking (present and not completed) whose prerequisites are all done.
+ * The queue listens to the graph, so completing a task pushes exactly
+ * the dependents it was the last open prerequisite of (one Kahn step),
+ * and undoing the completion pulls them out again. Each change costs
+ * O(log n) per affected task; nothing is rebuilt.
+ *
+ * While suspended (bulk loads) changes are only collected and applied
+ * in one go by resume().
+ */
+public class TaskReadyQueue implements ReadinessListener {
+
+    private final DaryTaskHeap heap;
+    private final TaskGraph graph;
+
+    // tasks whose readiness changed while suspended; null when live
+    private Set<Task> pending;
+
+    public TaskReadyQueue(DaryTaskHeap heap, TaskGraph graph) {
+        this.heap = heap;
+        this.graph = graph;
+        graph.setReadinessListener(this);
+        heap.buildFrom(graph.readyTasks());
+    }
+
+    @Override
+    public void readinessChanged(Task task) {
+        if (pending != null) {
+            pending.add(task);
+        } else {
+            sync(task);
+        }
+    }
+
+    /** Re-key a task after its due date, difficulty or minutes changed. */
+    public void refresh(Task task) {
+        heap.changePriority(task);
+    }
+
+    /** Stop applying changes one by one until resume(). */
+    public void suspend() {
+        if (pending == null) {
+            pending = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * Apply everything collected since suspend(): rebuild the heap when
+     * the change touches a large part of the graph, otherwise insert the
+     * newly ready tasks in one batch.
+     */
+    public void resume() {
+        if (pending == null) return;
+
+        Set<Task> changed = pending;
+        pending = null;
+        if (changed.size() * 2 >= graph.vertexCount()) {
+            rebuild();
+            return;
+        }
+
+        List<Task> added = new ArrayList<>(changed.size());
+        for (Task t : changed) {
+            if (!graph.isReady(t)) {
+                heap.remove(t);
+            } else if (!heap.changePriority(t)) {
+                added.add(t);
+            }
+        }
+        heap.insertAll(added);
+    }
+
+    public boolean isSuspended() {
+        return pending != null;
+    }
+
+    /** Rebuild the heap from the graph's current ready set, O(n). */
+    public void rebuild() {
+        heap.buildFrom(graph.readyTasks());
+    }
+
+    public Task findMin() {
+        return heap.findMin();
+    }
+
+    /** The k best ready tasks in recommendation order, without extracting. */
+    public List<Task> peekTop(int k) {
+        return heap.peekTop(k);
+    }
+
+    public boolean contains(Task task) {
+        return heap.contains(task);
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * A full study order for every open task: each task comes after all
+     * of its open prerequisites, and among the tasks available at each
+     * step the heap's priority picks the next one (Kahn's algorithm with
+     * a priority queue). Runs on a fresh heap, so the live queue is not
+     * touched. O((V + E) log V).
+     */
+    public List<Task> studyOrder() {
+        int n = graph.vertexCount();
+        int[] remaining = new int[n];
+        Collection<Task> initial = new ArrayList<>();
+        int open = 0;
+        for (int id = 0; id < n; id++) {
+            if (!graph.isBlocking(id)) continue;
+            open++;
+            remaining[id] = graph.countBlockingPrerequisites(id);
+            if (remaining[id] == 0) {
+                initial.add(graph.taskAt(id));
+            }
+        }
+
+        DaryTaskHeap order = new DaryTaskHeap(Math.max(1, open), heap.getArity());
+        order.buildFrom(initial);
+        List<Task> result = new ArrayList<>(open);
+        while (!order.isEmpty()) {
+            Task task = order.extractMin();
+            result.add(task);
+            int id = graph.idOf(task);
+            int degree = graph.outDegree(id);
+            for (int i = 0; i < degree; i++) {
+                int w = graph.outNeighbor(id, i);
+                if (graph.isBlocking(w) && --remaining[w] == 0) {
+                    order.insert(graph.taskAt(w));
+                }
+            }
+        }
+        return result;
+    }
+
+    // queue the task if it is ready, drop it otherwise
+    private void sync(Task task) {
+        if (!graph.isReady(task)) {
+            heap.remove(task);
+        } else if (!heap.changePriority(task)) {
+            heap.insert(task);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package smarttime.ds;
+
+import java.util.Comparator;
+import java.util.List;
+
+import smarttime.model.Task;
+
+/**
+ * QuickSelect-based partial sorting, used for paged task lists.
+ *
+ * sortPage() places the tasks that belong at sorted positions
+ * [offset, offset + limit) there, in order, in O(n + limit log limit)
+ * expected time: two QuickSelect passes fix the page boundaries and only
+ * the page itself is sorted. Like IntroTaskSorter, selection falls back
+ * to a full sort of the remaining range if partitioning keeps going badly,
+ * so the worst case stays O(n log n).
+ */
+final class TaskSelector {
+
+    private static final int SMALL_RANGE = 16;
+
+    private TaskSelector() {
+    }
+
+    static void sortPage(List<Task> tasks, Comparator<Task> comparator, int offset, int limit) {
+        if (tasks == null || tasks.size() <= 1 || limit <= 0) return;
+        int n = tasks.size();
+        int from = Math.max(0, offset);
+        int to = (int) Math.min(n, (long) from + limit);
+        if (from >= to) return;
+
+        Task[] a = tasks.toArray(new Task[0]);
+        sortPage(a, from, to, comparator);
+        IntroTaskSorter.writeBack(tasks, a);
+    }
+
+    /** Partially sort a[] so that a[from, to) holds exactly the sorted page. */
+    static void sortPage(Task[] a, int from, int to, Comparator<? super Task> cmp) {
+        int n = a.length;
+        if (from > 0) {
+            select(a, 0, n, from, cmp);
+        }
+        if (to < n) {
+            select(a, from, n, to, cmp);
+        }
+        IntroTaskSorter.sortRange(a, from, to, cmp);
+    }
+
+    /**
+     * Rearrange a[lo, hi) so that a[k] is the element that would be there
+     * after sorting, everything before it is <= and everything after is >=.
+     */
+    static void select(Task[] a, int lo, int hi, int k, Comparator<? super Task> cmp) {
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo));
+        while (hi - lo > SMALL_RANGE) {
+            if (budget-- == 0) {
+                IntroTaskSorter.sortRange(a, lo, hi, cmp);
+                return;
+            }
+
+            Task pivot = a[IntroTaskSorter.medianOf3(a, lo, lo + (hi - lo) / 2, hi - 1, cmp)];
+            long bounds = IntroTaskSorter.partition3(a, lo, hi, pivot, cmp);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+
+            if (k < lt) {
+                hi = lt;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return; // k landed in the block of pivot-equal elements
+            }
+        }
+        IntroTaskSorter.sortRange(a, lo, hi, cmp);
+    }
+}
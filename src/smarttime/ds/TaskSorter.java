@@ -2,72 +2,60 @@ package smarttime.ds;
 
 import java.util.Comparator;
 import java.util.List;
+import smarttime.config.AppConfig;
 import smarttime.model.Task;
 
 /**
- * Custom QuickSort implementation for Tasks.
+ * Entry point for sorting Tasks.
  * Implements the Sorting ADT (TaskSorterInterface).
+ *
+ * The orderings below are "known" to every sorter in this package: when
+ * one of them is passed in, TaskRadixSort sorts in linear time instead.
+ * Other orderings on lists of at least AppConfig.PARALLEL_SORT_THRESHOLD
+ * tasks go to ParallelTaskSorter, shorter lists to IntroTaskSorter, so no
+ * ordering can hit quicksort's quadratic worst case or deep recursion.
  */
 public class TaskSorter implements TaskSorterInterface {
 
+    private static final IntroTaskSorter INTRO = new IntroTaskSorter();
+    private static final ParallelTaskSorter PARALLEL = new ParallelTaskSorter();
+
+    /** Due date, then difficulty, then minutes, then title. */
+    public static final Comparator<Task> DEFAULT_ORDER = Comparator
+            .comparing(Task::getDueDate)
+            .thenComparingInt(Task::getDifficulty)
+            .thenComparingInt(Task::getEstimatedMinutes)
+            .thenComparing(Task::getTitle, String.CASE_INSENSITIVE_ORDER);
+
+    /** Earliest due date first, tasks without a date last. */
+    public static final Comparator<Task> DUE_DATE_ORDER = Comparator.comparing(
+            Task::getDueDate, Comparator.nullsLast((d1, d2) -> d1.compareTo(d2))
+    );
+
+    /** Easiest task first. */
+    public static final Comparator<Task> DIFFICULTY_ORDER = Comparator.comparingInt(Task::getDifficulty);
+
     @Override
     public void sort(List<Task> tasks, Comparator<Task> comparator) {
         if (tasks == null || tasks.size() <= 1) return;
-        quickSort(tasks, 0, tasks.size() - 1, comparator);
+        if (TaskRadixSort.trySort(tasks, comparator)) return;
+        if (tasks.size() >= AppConfig.PARALLEL_SORT_THRESHOLD) {
+            PARALLEL.sort(tasks, comparator);
+            return;
+        }
+        INTRO.sort(tasks, comparator);
     }
 
 
     public static void quickSortTasks(List<Task> tasks) {
-        new TaskSorter().sort(tasks, taskComparator());
+        new TaskSorter().sort(tasks, DEFAULT_ORDER);
     }
 
     public static void sortByDueDate(List<Task> tasks) {
-        Comparator<Task> cmp = Comparator.comparing(
-                Task::getDueDate, Comparator.nullsLast((d1, d2) -> d1.compareTo(d2))
-        );
-        new TaskSorter().sort(tasks, cmp);
+        new TaskSorter().sort(tasks, DUE_DATE_ORDER);
     }
 
     public static void sortByDifficulty(List<Task> tasks) {
-        Comparator<Task> cmp = Comparator.comparingInt(Task::getDifficulty);
-        new TaskSorter().sort(tasks, cmp);
-    }
-
-    private static Comparator<Task> taskComparator() {
-        return Comparator
-                .comparing(Task::getDueDate)
-                .thenComparingInt(Task::getDifficulty)
-                .thenComparingInt(Task::getEstimatedMinutes)
-                .thenComparing(Task::getTitle, String.CASE_INSENSITIVE_ORDER);
-    }
-
-    private static <T> void quickSort(List<T> list, int low, int high, Comparator<T> cmp) {
-        if (low < high) {
-            int pivotIndex = partition(list, low, high, cmp);
-            quickSort(list, low, pivotIndex - 1, cmp);
-            quickSort(list, pivotIndex + 1, high, cmp);
-        }
-    }
-
-    private static <T> int partition(List<T> list, int low, int high, Comparator<T> cmp) {
-        T pivot = list.get(high);
-        int i = low - 1;
-
-        for (int j = low; j < high; j++) {
-            if (cmp.compare(list.get(j), pivot) <= 0) {
-                i++;
-                swap(list, i, j);
-            }
-        }
-
-        swap(list, i + 1, high);
-        return i + 1;
-    }
-
-    private static <T> void swap(List<T> list, int i, int j) {
-        if (i == j) return;
-        T temp = list.get(i);
-        list.set(i, list.get(j));
-        list.set(j, temp);
+        new TaskSorter().sort(tasks, DIFFICULTY_ORDER);
     }
-}
\ No newline at end of file
+}
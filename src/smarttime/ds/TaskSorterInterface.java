@@ -11,4 +11,22 @@ public interface TaskSorterInterface {
      * Implementations define the sorting algorithm (QuickSort, MergeSort, etc.)
      */
     void sort(List<Task> tasks, Comparator<Task> comparator);
+
+    /**
+     * Partial sort: afterwards the first k positions hold the k smallest
+     * tasks in sorted order; the rest of the list is in no particular order.
+     * Uses QuickSelect, O(n + k log k) expected.
+     */
+    default void sortTopK(List<Task> tasks, Comparator<Task> comparator, int k) {
+        sortPage(tasks, comparator, 0, k);
+    }
+
+    /**
+     * Partial sort of one page: afterwards positions [offset, offset + limit)
+     * hold exactly the tasks a full sort would put there, in sorted order.
+     * Uses QuickSelect, O(n + limit log limit) expected.
+     */
+    default void sortPage(List<Task> tasks, Comparator<Task> comparator, int offset, int limit) {
+        TaskSelector.sortPage(tasks, comparator, offset, limit);
+    }
 }
@@ -1,38 +1,221 @@
 package smarttime.ds;
 
+import java.util.function.ToLongFunction;
+
+import smarttime.config.AppConfig;
+
 /**
- * Simple stack wrapper for undo operations, built on our own StackADT.
+ * Bounded history stack for undo / redo, built on our own StackADT.
+ *
+ * Entries live in a ring buffer: when the history is full (maxEntries) or
+ * the estimated retained size of its entries exceeds maxBytes, the oldest
+ * entry is dropped in O(1) by advancing the ring's tail. So however long
+ * the app runs, the history holds a bounded amount of memory. The buffer
+ * grows by doubling only up to maxEntries.
+ *
+ * With a Codec, entries that fit into a long (e.g. a single changed
+ * field) are stored as that long and rebuilt when popped or peeked: 8
+ * bytes per entry instead of an object graph. The ring holds one long per
+ * entry; entries that do not fit are marked OBJECT there and kept, in the
+ * same order, in a second ring of objects.
  */
-public class UndoStack<T> {
+@SuppressWarnings("unchecked")
+public class UndoStack<T> implements StackInterface<T> {
+
+    /**
+     * Converts entries to and from a long, so a history can keep the
+     * common small entries unboxed.
+     */
+    public interface Codec<T> {
+        /** The entry as a non-negative long, or a negative value to keep it as an object. */
+        long pack(T entry);
+
+        /** The entry a pack() result stands for. */
+        T unpack(long code);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long OBJECT = -1;
+    // retained size of a packed entry: its slot in codes[]
+    private static final long PACKED_BYTES = 8;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ToLongFunction<? super T> sizeOf;
+    private final Codec<T> codec;
 
-    private final StackInterface<T> stack;
+    // every entry, oldest first from 'oldest': a packed entry or OBJECT
+    private long[] codes;
+    private int oldest;
+    private int size;
 
+    // the OBJECT entries, in the same order, with their estimated sizes
+    private T[] objects;
+    private long[] objectBytes;
+    private int oldestObject;
+    private int objectCount;
+
+    private long bytes;      // estimated bytes retained by all entries
+
+    /** History bounded by AppConfig.UNDO_MAX_ENTRIES, without a byte budget. */
     public UndoStack() {
-        // default initial capacity; ArrayStack will grow if needed
-        this.stack = new ArrayStack<>(16);
+        this(AppConfig.UNDO_MAX_ENTRIES, Long.MAX_VALUE, entry -> 0);
+    }
+
+    /**
+     * @param maxEntries entries kept before the oldest is evicted
+     * @param maxBytes   budget for the summed sizeOf() of all entries
+     * @param sizeOf     estimated retained bytes of one entry
+     */
+    public UndoStack(int maxEntries, long maxBytes, ToLongFunction<? super T> sizeOf) {
+        this(maxEntries, maxBytes, sizeOf, null);
     }
 
-    public UndoStack(int initialCapacity) {
-        this.stack = new ArrayStack<>(initialCapacity);
+    /**
+     * @param codec packs small entries into longs; null keeps every entry
+     *              as an object
+     */
+    public UndoStack(int maxEntries, long maxBytes, ToLongFunction<? super T> sizeOf, Codec<T> codec) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.sizeOf = sizeOf;
+        this.codec = codec;
+        int capacity = Math.min(INITIAL_CAPACITY, maxEntries);
+        codes = new long[capacity];
+        objects = (T[]) new Object[capacity];
+        objectBytes = new long[capacity];
     }
 
+    /**
+     * Push an entry, evicting the oldest ones while the history is over
+     * its entry or byte limit. The newest entry is always kept.
+     */
+    @Override
     public void push(T action) {
-        stack.push(action);
+        if (size == maxEntries) {
+            evictOldest();
+        } else if (size == codes.length) {
+            growCodes();
+        }
+        long code = codec == null ? OBJECT : codec.pack(action);
+        if (code < 0) {
+            code = OBJECT;
+            pushObject(action);
+        } else {
+            bytes += PACKED_BYTES;
+        }
+        codes[index(size)] = code;
+        size++;
+
+        while (bytes > maxBytes && size > 1) {
+            evictOldest();
+        }
     }
 
+    @Override
     public T pop() {
-        return stack.pop();
+        if (isEmpty()) return null;
+        long code = codes[index(--size)];
+        if (code != OBJECT) {
+            bytes -= PACKED_BYTES;
+            return codec.unpack(code);
+        }
+        int slot = objectIndex(--objectCount);
+        T item = objects[slot];
+        objects[slot] = null;
+        bytes -= objectBytes[slot];
+        return item;
     }
 
+    @Override
     public T peek() {
-        return stack.peek();
+        if (isEmpty()) return null;
+        long code = codes[index(size - 1)];
+        return code != OBJECT ? codec.unpack(code) : objects[objectIndex(objectCount - 1)];
     }
 
+    @Override
     public boolean isEmpty() {
-        return stack.isEmpty();
+        return size == 0;
     }
 
+    @Override
     public int size() {
-        return stack.size();
+        return size;
+    }
+
+    /** Drop every entry (e.g. the redo history after a new action). */
+    public void clear() {
+        while (objectCount > 0) {
+            objects[objectIndex(--objectCount)] = null;
+        }
+        oldest = 0;
+        size = 0;
+        oldestObject = 0;
+        bytes = 0;
+    }
+
+    /** Estimated bytes retained by the entries currently in the history. */
+    public long retainedBytes() {
+        return bytes;
+    }
+
+    private void pushObject(T action) {
+        if (objectCount == objects.length) {
+            growObjects();
+        }
+        int slot = objectIndex(objectCount++);
+        long entrySize = sizeOf.applyAsLong(action);
+        objects[slot] = action;
+        objectBytes[slot] = entrySize;
+        bytes += entrySize;
+    }
+
+    private void evictOldest() {
+        if (codes[oldest] == OBJECT) {
+            objects[oldestObject] = null;
+            bytes -= objectBytes[oldestObject];
+            oldestObject = (oldestObject + 1) % objects.length;
+            objectCount--;
+        } else {
+            bytes -= PACKED_BYTES;
+        }
+        oldest = (oldest + 1) % codes.length;
+        size--;
+    }
+
+    // ring slot of the i-th entry counted from the oldest
+    private int index(int i) {
+        return (oldest + i) % codes.length;
+    }
+
+    private int objectIndex(int i) {
+        return (oldestObject + i) % objects.length;
+    }
+
+    private void growCodes() {
+        int capacity = Math.min(maxEntries, codes.length * 2);
+        long[] newCodes = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            newCodes[i] = codes[index(i)];
+        }
+        codes = newCodes;
+        oldest = 0;
+    }
+
+    private void growObjects() {
+        int capacity = Math.min(maxEntries, objects.length * 2);
+        T[] newObjects = (T[]) new Object[capacity];
+        long[] newBytes = new long[capacity];
+        for (int i = 0; i < objectCount; i++) {
+            newObjects[i] = objects[objectIndex(i)];
+            newBytes[i] = objectBytes[objectIndex(i)];
+        }
+        objects = newObjects;
+        objectBytes = newBytes;
+        oldestObject = 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package smarttime.model;
+
+/**
+ * One dependency edge: prerequisite must be done before dependent.
+ */
+public class Dependency {
+    private final Task prerequisite;
+    private final Task dependent;
+
+    public Dependency(Task prerequisite, Task dependent) {
+        this.prerequisite = prerequisite;
+        this.dependent = dependent;
+    }
+
+    public Task getPrerequisite() { return prerequisite; }
+    public Task getDependent() { return dependent; }
+
+    @Override
+    public String toString() {
+        return prerequisite + " -> " + dependent;
+    }
+}
@@ -0,0 +1,289 @@
+package smarttime.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One changed field of a Task with its old and new value, for undo/redo.
+ *
+ * An edit is recorded as a chain of these, one per field that actually
+ * changed, instead of a full Task snapshot: changing only the minutes
+ * costs one small object holding two unboxed ints. Applying or reverting
+ * a chain writes only those fields.
+ *
+ * A lone minutes, difficulty, due date or status edit also packs into 37
+ * bits (see packed()), which UndoAction uses to store the most common
+ * undo entries as a single long.
+ */
+public abstract class TaskFieldEdit {
+
+    private final TaskFieldEdit next;
+
+    private TaskFieldEdit(TaskFieldEdit next) {
+        this.next = next;
+    }
+
+    /** The next changed field of the same edit, or null. */
+    public TaskFieldEdit next() {
+        return next;
+    }
+
+    /** Write the new value into the task. */
+    public abstract void apply(Task task);
+
+    /** Write the old value back into the task. */
+    public abstract void revert(Task task);
+
+    // the same change in the opposite direction, chained onto 'rest'
+    abstract TaskFieldEdit inverted(TaskFieldEdit rest);
+
+    // rough heap bytes of this record
+    abstract long estimatedBytes();
+
+    // PACKING: bits 36..34 field tag, 33..17 old value, 16..0 new value
+
+    static final int PACKED_BITS = 37;
+    private static final int VALUE_BITS = 17;
+    private static final long MAX_VALUE = (1L << VALUE_BITS) - 1;
+    private static final int MINUTES = 1;
+    private static final int DIFFICULTY = 2;
+    private static final int DUE_DATE = 3;
+    private static final int STATUS = 4;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    // field tag if this kind of edit can be packed, else 0
+    int packTag() {
+        return 0;
+    }
+
+    // old / new value as a non-negative number; only called when packTag() != 0
+    long packedFrom() {
+        return -1;
+    }
+
+    long packedTo() {
+        return -1;
+    }
+
+    /**
+     * This edit in PACKED_BITS bits, or -1 if it cannot be packed: strings,
+     * a missing due date, a value outside 0..131071 (due dates before 1970
+     * or after 2328, more than 91 days of minutes), or more than one field.
+     */
+    long packed() {
+        int tag = packTag();
+        if (tag == 0 || next != null) return -1;
+        long from = packedFrom();
+        long to = packedTo();
+        if (from < 0 || from > MAX_VALUE || to < 0 || to > MAX_VALUE) return -1;
+        return ((long) tag << (2 * VALUE_BITS)) | (from << VALUE_BITS) | to;
+    }
+
+    /** The single-field edit a packed() value stands for. */
+    static TaskFieldEdit unpacked(long bits) {
+        int tag = (int) (bits >>> (2 * VALUE_BITS)) & 0x7;
+        int from = (int) ((bits >>> VALUE_BITS) & MAX_VALUE);
+        int to = (int) (bits & MAX_VALUE);
+        switch (tag) {
+            case MINUTES:
+                return new Minutes(from, to, null);
+            case DIFFICULTY:
+                return new Difficulty(from, to, null);
+            case DUE_DATE:
+                return new DueDate(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), null);
+            case STATUS:
+                return new Status(STATUSES[from], STATUSES[to], null);
+            default:
+                throw new IllegalArgumentException("Not a packed field edit: " + bits);
+        }
+    }
+
+    /** Is this a status edit (recorded as UPDATE_STATUS)? */
+    boolean isStatus() {
+        return this instanceof Status;
+    }
+
+    // CHAINS
+
+    /**
+     * The changed fields between a task and the given new values, or null
+     * if nothing changes.
+     */
+    public static TaskFieldEdit diff(Task task, String title, String course,
+                                     LocalDate dueDate, int minutes, int difficulty) {
+        TaskFieldEdit chain = null;
+        if (!Objects.equals(task.getTitle(), title)) {
+            chain = new Title(task.getTitle(), title, chain);
+        }
+        if (!Objects.equals(task.getCourse(), course)) {
+            chain = new Course(task.getCourse(), course, chain);
+        }
+        if (!Objects.equals(task.getDueDate(), dueDate)) {
+            chain = new DueDate(task.getDueDate(), dueDate, chain);
+        }
+        if (task.getEstimatedMinutes() != minutes) {
+            chain = new Minutes(task.getEstimatedMinutes(), minutes, chain);
+        }
+        if (task.getDifficulty() != difficulty) {
+            chain = new Difficulty(task.getDifficulty(), difficulty, chain);
+        }
+        return chain;
+    }
+
+    /** A status change, or null if the status stays the same. */
+    public static TaskFieldEdit status(TaskStatus from, TaskStatus to) {
+        return from == to ? null : new Status(from, to, null);
+    }
+
+    public static void applyAll(TaskFieldEdit chain, Task task) {
+        for (TaskFieldEdit e = chain; e != null; e = e.next) {
+            e.apply(task);
+        }
+    }
+
+    public static void revertAll(TaskFieldEdit chain, Task task) {
+        for (TaskFieldEdit e = chain; e != null; e = e.next) {
+            e.revert(task);
+        }
+    }
+
+    /** The chain that undoes what reverting this chain did (old and new swapped). */
+    public static TaskFieldEdit invert(TaskFieldEdit chain) {
+        TaskFieldEdit result = null;
+        for (TaskFieldEdit e = chain; e != null; e = e.next) {
+            result = e.inverted(result);
+        }
+        return result;
+    }
+
+    public static long estimatedBytes(TaskFieldEdit chain) {
+        long total = 0;
+        for (TaskFieldEdit e = chain; e != null; e = e.next) {
+            total += e.estimatedBytes();
+        }
+        return total;
+    }
+
+    /** Does the chain touch a field the sorted views order by? */
+    public static boolean changesSortKey(TaskFieldEdit chain) {
+        for (TaskFieldEdit e = chain; e != null; e = e.next) {
+            if (!(e instanceof Course) && !(e instanceof Status)) return true;
+        }
+        return false;
+    }
+
+    // FIELDS
+
+    private static final class Title extends TaskFieldEdit {
+        private final String from;
+        private final String to;
+
+        Title(String from, String to, TaskFieldEdit next) {
+            super(next);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public void apply(Task task) { task.setTitle(to); }
+        @Override public void revert(Task task) { task.setTitle(from); }
+        @Override TaskFieldEdit inverted(TaskFieldEdit rest) { return new Title(to, from, rest); }
+        // the old string is only kept alive by this record
+        @Override long estimatedBytes() { return 24 + stringBytes(from); }
+    }
+
+    private static final class Course extends TaskFieldEdit {
+        private final String from;
+        private final String to;
+
+        Course(String from, String to, TaskFieldEdit next) {
+            super(next);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public void apply(Task task) { task.setCourse(to); }
+        @Override public void revert(Task task) { task.setCourse(from); }
+        @Override TaskFieldEdit inverted(TaskFieldEdit rest) { return new Course(to, from, rest); }
+        @Override long estimatedBytes() { return 24 + stringBytes(from); }
+    }
+
+    private static final class DueDate extends TaskFieldEdit {
+        private final LocalDate from;
+        private final LocalDate to;
+
+        DueDate(LocalDate from, LocalDate to, TaskFieldEdit next) {
+            super(next);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public void apply(Task task) { task.setDueDate(to); }
+        @Override public void revert(Task task) { task.setDueDate(from); }
+        @Override TaskFieldEdit inverted(TaskFieldEdit rest) { return new DueDate(to, from, rest); }
+        @Override long estimatedBytes() { return 24 + (from == null ? 0 : 24); }
+        @Override int packTag() { return DUE_DATE; }
+        @Override long packedFrom() { return from == null ? -1 : from.toEpochDay(); }
+        @Override long packedTo() { return to == null ? -1 : to.toEpochDay(); }
+    }
+
+    private static final class Minutes extends TaskFieldEdit {
+        private final int from;
+        private final int to;
+
+        Minutes(int from, int to, TaskFieldEdit next) {
+            super(next);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public void apply(Task task) { task.setEstimatedMinutes(to); }
+        @Override public void revert(Task task) { task.setEstimatedMinutes(from); }
+        @Override TaskFieldEdit inverted(TaskFieldEdit rest) { return new Minutes(to, from, rest); }
+        @Override long estimatedBytes() { return 24; }
+        @Override int packTag() { return MINUTES; }
+        @Override long packedFrom() { return from; }
+        @Override long packedTo() { return to; }
+    }
+
+    private static final class Difficulty extends TaskFieldEdit {
+        private final int from;
+        private final int to;
+
+        Difficulty(int from, int to, TaskFieldEdit next) {
+            super(next);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public void apply(Task task) { task.setDifficulty(to); }
+        @Override public void revert(Task task) { task.setDifficulty(from); }
+        @Override TaskFieldEdit inverted(TaskFieldEdit rest) { return new Difficulty(to, from, rest); }
+        @Override long estimatedBytes() { return 24; }
+        @Override int packTag() { return DIFFICULTY; }
+        @Override long packedFrom() { return from; }
+        @Override long packedTo() { return to; }
+    }
+
+    private static final class Status extends TaskFieldEdit {
+        private final TaskStatus from;
+        private final TaskStatus to;
+
+        Status(TaskStatus from, TaskStatus to, TaskFieldEdit next) {
+            super(next);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public void apply(Task task) { task.setStatus(to); }
+        @Override public void revert(Task task) { task.setStatus(from); }
+        @Override TaskFieldEdit inverted(TaskFieldEdit rest) { return new Status(to, from, rest); }
+        @Override long estimatedBytes() { return 24; }
+        @Override int packTag() { return STATUS; }
+        @Override long packedFrom() { return from == null ? -1 : from.ordinal(); }
+        @Override long packedTo() { return to == null ? -1 : to.ordinal(); }
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();
+    }
+}
@@ -1,13 +1,23 @@
 package smarttime.model;
 
+import java.util.List;
+import java.util.function.IntFunction;
+
 /**
  * Represents a single undoable action in the SmartTime app.
  *
  * Supports:
  *  - ADD_TASK: undo by removing the added task
- *  - UPDATE_STATUS: undo by restoring the previous TaskStatus
- *  - UPDATE_TASK_DETAILS: undo by restoring a full Task snapshot
- *  - DELETE_TASK: undo by restoring the deleted task
+ *  - UPDATE_STATUS: undo by reverting the recorded status change
+ *  - UPDATE_TASK_DETAILS: undo by reverting the recorded field changes
+ *  - DELETE_TASK: undo by restoring the deleted task and its dependencies
+ *  - BATCH: undo every action of a transaction, last one first
+ *
+ * Updates record only the fields that changed (see TaskFieldEdit), not a
+ * full Task snapshot. An update of a single minutes, difficulty, due date
+ * or status field also fits into one long (pack()), which the undo
+ * history stores instead of the object: bits 62..37 hold the task id and
+ * bits 36..0 the packed field edit.
  */
 public class UndoAction {
 
@@ -15,36 +25,51 @@ public class UndoAction {
         ADD_TASK,
         UPDATE_STATUS,
         UPDATE_TASK_DETAILS,
-        DELETE_TASK
+        DELETE_TASK,
+        BATCH
     }
 
+    /** pack() result for an action that does not fit into a long. */
+    public static final long NOT_PACKED = -1;
+
+    private static final int MAX_PACKED_ID = (1 << (63 - TaskFieldEdit.PACKED_BITS)) - 1;
+
     private final ActionType type;
     private final Task task;                 // the affected task
-    private final TaskStatus previousStatus; // only for UPDATE_STATUS
-    private final Task snapshot;             // only for UPDATE_TASK_DETAILS
+    private final TaskFieldEdit edits;       // only for UPDATE_STATUS / UPDATE_TASK_DETAILS
+    private final List<Task> prerequisites;  // only for DELETE_TASK
+    private final List<Task> dependents;     // only for DELETE_TASK
+    private final List<UndoAction> actions;  // only for BATCH, in the order applied
 
     // Constructor for ADD_TASK and DELETE_TASK
     public UndoAction(ActionType type, Task task) {
-        this.type = type;
-        this.task = task;
-        this.previousStatus = null;
-        this.snapshot = null;
+        this(type, task, null, null, null, null);
     }
 
-    // Constructor for UPDATE_STATUS
-    public UndoAction(ActionType type, Task task, TaskStatus previousStatus) {
-        this.type = type;
-        this.task = task;
-        this.previousStatus = previousStatus;
-        this.snapshot = null;
+    // Constructor for UPDATE_STATUS and UPDATE_TASK_DETAILS
+    public UndoAction(ActionType type, Task task, TaskFieldEdit edits) {
+        this(type, task, edits, null, null, null);
+    }
+
+    // Constructor for DELETE_TASK with the edges the graph dropped
+    public UndoAction(ActionType type, Task task, List<Task> prerequisites, List<Task> dependents) {
+        this(type, task, null, prerequisites, dependents, null);
     }
 
-    // Constructor for UPDATE_TASK_DETAILS with snapshot
-    public UndoAction(ActionType type, Task task, Task snapshotTask) {
+    // Constructor for BATCH
+    public UndoAction(List<UndoAction> actions) {
+        this(ActionType.BATCH, null, null, null, null, actions);
+    }
+
+    private UndoAction(ActionType type, Task task, TaskFieldEdit edits,
+                       List<Task> prerequisites, List<Task> dependents,
+                       List<UndoAction> actions) {
         this.type = type;
         this.task = task;
-        this.snapshot = snapshotTask;
-        this.previousStatus = null;
+        this.edits = edits;
+        this.prerequisites = prerequisites;
+        this.dependents = dependents;
+        this.actions = actions;
     }
 
     public ActionType getType() {
@@ -55,11 +80,71 @@ public class UndoAction {
         return task;
     }
 
-    public TaskStatus getPreviousStatus() {
-        return previousStatus;
+    /** Changed fields, chained through TaskFieldEdit.next(); null if none. */
+    public TaskFieldEdit getEdits() {
+        return edits;
+    }
+
+    public List<Task> getPrerequisites() {
+        return prerequisites;
+    }
+
+    public List<Task> getDependents() {
+        return dependents;
+    }
+
+    /** Actions grouped by a transaction; null unless this is a BATCH. */
+    public List<UndoAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * This action as a non-negative long, or NOT_PACKED unless it is an
+     * update of one packable field of a task with an id up to 2^26 - 1.
+     */
+    public long pack() {
+        if (edits == null || task == null) return NOT_PACKED;
+        if ((type == ActionType.UPDATE_STATUS) != edits.isStatus()) return NOT_PACKED;
+        int id = task.getId();
+        long bits = edits.packed();
+        if (bits < 0 || id < 0 || id > MAX_PACKED_ID) return NOT_PACKED;
+        return ((long) id << TaskFieldEdit.PACKED_BITS) | bits;
+    }
+
+    /**
+     * The action a pack() result stands for, with the task looked up by id.
+     * The caller must make sure that id still names the same task, e.g. an
+     * undo history whose later entries restored everything they removed.
+     */
+    public static UndoAction unpack(long code, IntFunction<Task> taskById) {
+        Task task = taskById.apply((int) (code >>> TaskFieldEdit.PACKED_BITS));
+        TaskFieldEdit edit = TaskFieldEdit.unpacked(code & ((1L << TaskFieldEdit.PACKED_BITS) - 1));
+        ActionType type = edit.isStatus() ? ActionType.UPDATE_STATUS : ActionType.UPDATE_TASK_DETAILS;
+        return new UndoAction(type, task, edit);
+    }
+
+    /**
+     * Rough heap bytes this entry keeps reachable: the action itself, its
+     * field edits, saved edge lists, and a deleted task that nothing else
+     * holds on to. Used to bound the undo history.
+     */
+    public long estimatedBytes() {
+        long total = 40 + TaskFieldEdit.estimatedBytes(edits);
+        if (type == ActionType.DELETE_TASK) total += taskBytes(task);
+        if (prerequisites != null) total += 24 + 8L * prerequisites.size();
+        if (dependents != null) total += 24 + 8L * dependents.size();
+        if (actions != null) {
+            total += 24 + 8L * actions.size();
+            for (UndoAction action : actions) total += action.estimatedBytes();
+        }
+        return total;
+    }
+
+    private static long taskBytes(Task t) {
+        return 48 + stringBytes(t.getTitle()) + stringBytes(t.getCourse());
     }
 
-    public Task getSnapshot() {
-        return snapshot;
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();
     }
-}
\ No newline at end of file
+}
@@ -2,15 +2,26 @@ package smarttime.service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import smarttime.config.AppConfig;
+import smarttime.ds.CriticalPathAnalyzer;
+import smarttime.ds.DaryTaskHeap;
+import smarttime.ds.IntroTaskSorter;
+import smarttime.ds.SortedTaskIndex;
 import smarttime.ds.TaskGraph;
-import smarttime.ds.TaskMinHeap;
+import smarttime.ds.TaskIdMap;
+import smarttime.ds.TaskReadyQueue;
 import smarttime.ds.UndoStack;
 import smarttime.ds.TaskSorter;
+import smarttime.ds.TaskSorterInterface;
+import smarttime.model.Dependency;
 import smarttime.model.Task;
+import smarttime.model.TaskFieldEdit;
 import smarttime.model.TaskStatus;
 import smarttime.model.UndoAction;
 import smarttime.model.UndoAction.ActionType;
@@ -18,39 +29,228 @@ import smarttime.model.UndoAction.ActionType;
 /**
  * Glue between UI and DS.
  * All mutations must go through this class so undo works correctly.
+ * Undo and redo histories are bounded (entries and estimated bytes, see
+ * AppConfig), so a long session does not keep every old action alive.
+ *
+ * Recommendations come from a TaskReadyQueue: its heap only holds tasks
+ * that are present, not completed and whose prerequisites are all done,
+ * so the next recommendation is a plain peek at its root and never a
+ * locked task.
+ *
+ * A CriticalPathAnalyzer is told about every change to minutes, due
+ * dates, completion and dependencies, so slack and the critical path are
+ * updated incrementally instead of recomputed over the whole DAG.
+ *
+ * One SortedTaskIndex per list ordering is updated on every mutation, so
+ * the sorted getters return ready-made read-only views instead of
+ * copying and re-sorting every task.
+ *
+ * Tasks are indexed by id in a TaskIdMap, so lookup, membership and
+ * removal are O(1). New ids come from getNextId(), which never hands out
+ * an id twice. Ids run from 1 to MAX_TASK_ID.
+ *
+ * Concurrent mode (see the three-argument constructor) lets several
+ * threads share one service. Writes are serialized by a StampedLock, so
+ * the heap, graph, views and undo log always change together. O(1)
+ * lookups are optimistic reads that fall back to the read lock if a
+ * writer got in the way; scans and copies run under the read lock; and
+ * queries that fill lazy caches (critical path, reachability) take the
+ * write lock. Sorted views are returned as copies in this mode. A
+ * transaction holds the write lock from begin to commit, and the thread
+ * that holds it may call back into the service freely.
  */
 public class TaskService {
 
-    private final List<Task> allTasks = new ArrayList<>();
-    private final TaskMinHeap heap;
+    /** Largest task id accepted, so that getNextId() cannot overflow. */
+    public static final int MAX_TASK_ID = Integer.MAX_VALUE - 1;
+
+    private final TaskIdMap tasksById = new TaskIdMap();
+    // next id getNextId() hands out; always above every id seen so far
+    private int nextId = 1;
     private final TaskGraph graph;
-    private final UndoStack<UndoAction> undoStack = new UndoStack<>();
+    private final TaskReadyQueue readyQueue;
+    private final CriticalPathAnalyzer criticalPath;
+    // bounded histories; undoing an action moves its inverse to redoStack
+    private final UndoStack<UndoAction> undoStack = newHistory();
+    private final UndoStack<UndoAction> redoStack = newHistory();
+    private final TaskSorterInterface sorter = new IntroTaskSorter();
+
+    // sorted views, one per ordering offered in the task list
+    private final SortedTaskIndex byDefaultOrder = new SortedTaskIndex(TaskSorter.DEFAULT_ORDER);
+    private final SortedTaskIndex byDueDate = new SortedTaskIndex(TaskSorter.DUE_DATE_ORDER);
+    private final SortedTaskIndex byDifficulty = new SortedTaskIndex(TaskSorter.DIFFICULTY_ORDER);
+    private final SortedTaskIndex[] sortedViews = {byDefaultOrder, byDueDate, byDifficulty};
+
+    // > 0 while ready-queue, view and analysis upkeep is deferred
+    // (bulk load, transaction, batch undo); sections may nest
+    private int deferDepth;
+    // tasks added while deferred; views catch up at the end
+    private List<Task> bulkBatch;
+    // a task left the views' order while deferred, so they are rebuilt at the end
+    private boolean viewsNeedRebuild;
+
+    // actions recorded by the open transaction; null if there is none
+    private List<UndoAction> transaction;
+
+    // CONCURRENCY: null unless the service was built for concurrent use
+    private final StampedLock lock;
+    private Thread writer;          // thread holding the write lock
+    private long writeStamp;
+    private boolean transactionHoldsLock;
+
+    public TaskService(DaryTaskHeap heap, TaskGraph graph) {
+        this(heap, graph, false);
+    }
 
-    public TaskService(TaskMinHeap heap, TaskGraph graph) {
-        this.heap = heap;
+    /**
+     * @param concurrent make the service safe to call from several threads
+     *                   (costs a lock acquisition per call)
+     */
+    public TaskService(DaryTaskHeap heap, TaskGraph graph, boolean concurrent) {
+        this.lock = concurrent ? new StampedLock() : null;
         this.graph = graph;
+        this.readyQueue = new TaskReadyQueue(heap, graph);
+        this.criticalPath = new CriticalPathAnalyzer(graph, LocalDate.now(),
+                AppConfig.PLANNING_MINUTES_PER_DAY);
     }
     
     // ADD TASK
     public void addTask(Task task) {
-        allTasks.add(task);
-        heap.insert(task);
-        graph.addTask(task);
+        exclusive(() -> {
+            int id = task.getId();
+            if (!isValidId(id)) {
+                throw new IllegalArgumentException("Task id " + id + " is outside 1.." + MAX_TASK_ID + ".");
+            }
+            if (tasksById.containsKey(id)) {
+                throw new IllegalArgumentException("Task id " + id + " is already in use.");
+            }
+            // the graph goes first: if it refuses the task, nothing else has changed yet.
+            // The ready queue follows the graph's readiness changes.
+            graph.addTask(task);
+            tasksById.add(task);
+            nextId = Math.max(nextId, id + 1);
+            addToViews(task);
+            syncGraph(task);
+
+            record(new UndoAction(ActionType.ADD_TASK, task));
+        });
+    }
 
-        undoStack.push(new UndoAction(ActionType.ADD_TASK, task));
+    // BULK LOAD
+    /**
+     * Start a bulk load: tasks and dependencies added until endBulkLoad()
+     * are not pushed into the ready queue and sorted views one by one,
+     * they are applied once at the end. Calls may nest; only the outermost
+     * endBulkLoad() applies the batch. The sorted views and recommendations
+     * are stale until then.
+     */
+    public void beginBulkLoad() {
+        exclusive(() -> {
+            if (deferDepth++ > 0) return;
+
+            bulkBatch = new ArrayList<>();
+            viewsNeedRebuild = false;
+            readyQueue.suspend();
+            criticalPath.invalidate();
+        });
     }
 
-    // MARK COMPLETED
-    public void markTaskCompleted(Task task) {
-        if (task == null) return;
+    /** Finish a bulk load and build the ready queue and views in a single pass. */
+    public void endBulkLoad() {
+        exclusive(() -> {
+            if (deferDepth == 0 || --deferDepth > 0) return;
+
+            List<Task> batch = bulkBatch;
+            bulkBatch = null;
+            readyQueue.resume();
+            if (viewsNeedRebuild || batch.size() * 2 >= tasksById.size()) {
+                rebuildViews();
+                return;
+            }
+
+            for (Task t : batch) {
+                addToViews(t);
+            }
+        });
+    }
 
-        TaskStatus previous = task.getStatus();
-        if (previous == TaskStatus.COMPLETED) return;
+    public boolean isBulkLoading() {
+        return optimistic(() -> deferDepth > 0);
+    }
 
-        task.setStatus(TaskStatus.COMPLETED);
-        undoStack.push(new UndoAction(ActionType.UPDATE_STATUS, task, previous));
+    // TRANSACTIONS
+    /**
+     * Open a transaction: every change made until commitTransaction() is
+     * undone and redone as one step, and the ready queue, sorted views and
+     * critical path are brought up to date once, at commit. Dependencies
+     * still go into the graph immediately, so cycle checks stay exact.
+     */
+    public void beginTransaction() {
+        boolean locked = acquireWrite();
+        if (transaction != null) {
+            if (locked) releaseWrite();
+            throw new IllegalStateException("A transaction is already open.");
+        }
+        transaction = new ArrayList<>();
+        transactionHoldsLock = locked;
+        beginBulkLoad();
+    }
+
+    /** Close the open transaction and record its changes as a single undo entry. */
+    public void commitTransaction() {
+        boolean locked = acquireWrite();
+        try {
+            if (transaction == null) return;
+
+            List<UndoAction> actions = transaction;
+            transaction = null;
+            // the lock taken by beginTransaction() is released with this call's
+            locked |= transactionHoldsLock;
+            transactionHoldsLock = false;
+            endBulkLoad();
+            if (actions.size() == 1) {
+                record(actions.get(0));
+            } else if (!actions.isEmpty()) {
+                record(new UndoAction(actions));
+            }
+        } finally {
+            if (locked) releaseWrite();
+        }
+    }
 
-        rebuildHeap();
+    /**
+     * Run work inside a transaction. If it throws, the changes it made so
+     * far are still committed, so a single undo rolls them back.
+     */
+    public void runInTransaction(Runnable work) {
+        beginTransaction();
+        try {
+            work.run();
+        } finally {
+            commitTransaction();
+        }
+    }
+
+    public boolean isInTransaction() {
+        return optimistic(() -> transaction != null);
+    }
+
+    // MARK COMPLETED
+    public void markTaskCompleted(Task task) {
+        exclusive(() -> {
+            if (!isLive(task)) return;
+
+            TaskStatus previous = task.getStatus();
+            if (previous == TaskStatus.COMPLETED) return;
+
+            // unblocks dependents; the ready queue drops this task and picks up
+            // the dependents it was the last open prerequisite of
+            task.setStatus(TaskStatus.COMPLETED);
+            graph.setBlocking(task, false);
+            criticalPath.taskChanged(task);
+            record(new UndoAction(ActionType.UPDATE_STATUS, task,
+                    TaskFieldEdit.status(previous, TaskStatus.COMPLETED)));
+        });
     }
 
     // EDIT TASK
@@ -60,161 +260,494 @@ public class TaskService {
                            LocalDate newDueDate,
                            int newMinutes,
                            int newDifficulty) {
+        exclusive(() -> {
+            if (!isLive(task)) return;
 
-        if (task == null) return;
-
-        // snapshot before edit (for undo)
-        Task snapshot = new Task(
-                task.getId(),
-                task.getTitle(),
-                task.getCourse(),
-                task.getDueDate(),
-                task.getEstimatedMinutes(),
-                task.getDifficulty()
-        );
-        snapshot.setStatus(task.getStatus());
+            // record only the fields that change (for undo), then apply them
+            TaskFieldEdit edits = TaskFieldEdit.diff(task, newTitle, newCourse,
+                    newDueDate, newMinutes, newDifficulty);
+            applyEdits(task, edits, false);
 
-        // apply new values
-        task.setTitle(newTitle);
-        task.setCourse(newCourse);
-        task.setDueDate(newDueDate);
-        task.setEstimatedMinutes(newMinutes);
-        task.setDifficulty(newDifficulty);
-
-        rebuildHeap();
-
-        undoStack.push(new UndoAction(ActionType.UPDATE_TASK_DETAILS, task, snapshot));
+            record(new UndoAction(ActionType.UPDATE_TASK_DETAILS, task, edits));
+        });
     }
 
     // DELETE TASK
     public void deleteTask(Task task) {
-        if (task == null) return;
+        exclusive(() -> {
+            if (!isLive(task)) return;
 
-        // Save for undo
-        undoStack.push(new UndoAction(ActionType.DELETE_TASK, task));
+            // Save for undo, with the dependencies the graph is about to drop
+            record(new UndoAction(ActionType.DELETE_TASK, task,
+                    graph.getPrerequisites(task), graph.getNeighbors(task)));
 
-        removeTaskInternal(task);
-        rebuildHeap();
+            removeTaskInternal(task);
+        });
     }
 
     // INTERNAL REMOVE
     private void removeTaskInternal(Task task) {
-        allTasks.remove(task);
-        // when graph supports remove: graph.removeTask(task);
+        if (!tasksById.remove(task)) return;
+        removeFromViews(task);
+        // drops the task's dependencies and unlocks its dependents
+        criticalPath.taskRemoving(task);
+        graph.removeVertex(task);
     }
     
-    // UNDO
+    // UNDO / REDO
     public void undoLastAction() {
-        if (undoStack.isEmpty()) return;
+        exclusive(() -> {
+            if (undoStack.isEmpty()) return;
+            requireNoTransaction();
+            redoStack.push(revert(undoStack.pop()));
+        });
+    }
+
+    /** Re-apply the most recently undone action. */
+    public void redoLastAction() {
+        exclusive(() -> {
+            if (redoStack.isEmpty()) return;
+            requireNoTransaction();
+            undoStack.push(revert(redoStack.pop()));
+        });
+    }
+
+    private void requireNoTransaction() {
+        if (transaction != null) {
+            throw new IllegalStateException("Cannot undo or redo inside a transaction.");
+        }
+    }
 
-        UndoAction action = undoStack.pop();
+    // a new action invalidates everything that could be redone
+    private void record(UndoAction action) {
+        if (transaction != null) {
+            transaction.add(action);
+            return;
+        }
+        undoStack.push(action);
+        redoStack.clear();
+    }
+
+    /**
+     * Revert an action and return the action that reverts the revert:
+     * undoing an add is a delete, restoring a status records the status it
+     * replaced, and so on.
+     */
+    private UndoAction revert(UndoAction action) {
         Task task = action.getTask();
 
         switch (action.getType()) {
 
-            case ADD_TASK:
+            case ADD_TASK: {
+                UndoAction inverse = new UndoAction(ActionType.DELETE_TASK, task,
+                        graph.getPrerequisites(task), graph.getNeighbors(task));
                 removeTaskInternal(task);
-                rebuildHeap();
-                break;
+                return inverse;
+            }
 
             case UPDATE_STATUS:
-                task.setStatus(action.getPreviousStatus());
-                rebuildHeap();
-                break;
-
             case UPDATE_TASK_DETAILS:
-                Task snapshot = action.getSnapshot();
-                if (snapshot != null) {
-                    task.setTitle(snapshot.getTitle());
-                    task.setCourse(snapshot.getCourse());
-                    task.setDueDate(snapshot.getDueDate());
-                    task.setEstimatedMinutes(snapshot.getEstimatedMinutes());
-                    task.setDifficulty(snapshot.getDifficulty());
-                    task.setStatus(snapshot.getStatus());
-                }
-                rebuildHeap();
-                break;
+                applyEdits(task, action.getEdits(), true);
+                return new UndoAction(action.getType(), task, TaskFieldEdit.invert(action.getEdits()));
+
+            case BATCH:
+                return revertBatch(action.getActions());
 
             case DELETE_TASK:
-                allTasks.add(task);
+            default:
+                if (!tasksById.add(task)) {
+                    throw new IllegalStateException("Cannot restore task: id "
+                            + task.getId() + " is in use again.");
+                }
                 graph.addTask(task);
-                rebuildHeap();
-                break;
+                syncGraph(task);
+                restoreDependencies(task, action);
+                addToViews(task);
+                return new UndoAction(ActionType.ADD_TASK, task);
         }
     }
 
-    // REBUILD HEAP
-    private void rebuildHeap() {
-        heap.clear();
-        for (Task t : allTasks) {
-            heap.insert(t);
+    /**
+     * Revert a transaction's actions newest first, in one deferred pass.
+     * The inverses are listed in the order they were applied, so reverting
+     * the returned batch replays the transaction.
+     */
+    private UndoAction revertBatch(List<UndoAction> actions) {
+        List<UndoAction> inverses = new ArrayList<>(actions.size());
+        beginBulkLoad();
+        try {
+            for (int i = actions.size() - 1; i >= 0; i--) {
+                inverses.add(revert(actions.get(i)));
+            }
+        } finally {
+            endBulkLoad();
         }
+        return new UndoAction(inverses);
+    }
+
+    /**
+     * Write a field-edit chain into a task (or revert it) and bring every
+     * structure that depends on those fields up to date. The sorted views
+     * are only touched when a field they order by changes.
+     */
+    private void applyEdits(Task task, TaskFieldEdit edits, boolean revert) {
+        boolean resort = TaskFieldEdit.changesSortKey(edits);
+        if (resort) removeFromViews(task);
+        if (revert) {
+            TaskFieldEdit.revertAll(edits, task);
+        } else {
+            TaskFieldEdit.applyAll(edits, task);
+        }
+        if (resort) addToViews(task);
+
+        readyQueue.refresh(task);
+        syncGraph(task);
+    }
+
+    /**
+     * Single-field edits are kept packed into a long (see UndoAction.pack).
+     * They name their task by id, which is safe: an entry is only popped
+     * after every newer one was reverted, so a task deleted since is back
+     * under its id by then.
+     */
+    private UndoStack<UndoAction> newHistory() {
+        return new UndoStack<>(AppConfig.UNDO_MAX_ENTRIES, AppConfig.UNDO_MAX_BYTES,
+                UndoAction::estimatedBytes, new UndoStack.Codec<>() {
+                    @Override
+                    public long pack(UndoAction action) {
+                        return action.pack();
+                    }
+
+                    @Override
+                    public UndoAction unpack(long code) {
+                        return UndoAction.unpack(code, tasksById::get);
+                    }
+                });
     }
+
+    // dependencies added since the delete may make an old edge a cycle;
+    // such edges are not restored
+    private void restoreDependencies(Task task, UndoAction action) {
+        if (action.getPrerequisites() != null) {
+            for (Task prerequisite : action.getPrerequisites()) {
+                tryAddDependency(prerequisite, task);
+            }
+        }
+        if (action.getDependents() != null) {
+            for (Task dependent : action.getDependents()) {
+                tryAddDependency(task, dependent);
+            }
+        }
+    }
+
+    private void tryAddDependency(Task prerequisite, Task dependent) {
+        try {
+            addDependency(prerequisite, dependent);
+        } catch (IllegalArgumentException e) {
+            // would close a cycle; leave it out
+        }
+    }
+
+    // a present task blocks its dependents until it is completed
+    private void syncGraph(Task task) {
+        graph.setBlocking(task, isActionable(task));
+        criticalPath.taskChanged(task);
+    }
+
+    // SORTED VIEWS
+    private void addToViews(Task task) {
+        if (bulkBatch != null) {
+            bulkBatch.add(task);
+            return;
+        }
+        for (SortedTaskIndex view : sortedViews) {
+            view.add(task);
+        }
+    }
+
+    private void removeFromViews(Task task) {
+        if (bulkBatch != null) {
+            viewsNeedRebuild = true;
+            return;
+        }
+        for (SortedTaskIndex view : sortedViews) {
+            view.remove(task);
+        }
+    }
+
+    private void rebuildViews() {
+        for (SortedTaskIndex view : sortedViews) {
+            view.buildFrom(tasksById.values());
+        }
+    }
+
+    private boolean isActionable(Task task) {
+        return task.getStatus() != TaskStatus.COMPLETED;
+    }
+
+    // LOCKING (no-ops unless concurrent)
+
+    // true if this call took the write lock; false when not concurrent or
+    // when the calling thread already holds it
+    private boolean acquireWrite() {
+        if (lock == null || writer == Thread.currentThread()) return false;
+        writeStamp = lock.writeLock();
+        writer = Thread.currentThread();
+        return true;
+    }
+
+    private void releaseWrite() {
+        writer = null;
+        lock.unlockWrite(writeStamp);
+    }
+
+    private void exclusive(Runnable action) {
+        boolean locked = acquireWrite();
+        try {
+            action.run();
+        } finally {
+            if (locked) releaseWrite();
+        }
+    }
+
+    private <T> T exclusiveGet(Supplier<T> action) {
+        boolean locked = acquireWrite();
+        try {
+            return action.get();
+        } finally {
+            if (locked) releaseWrite();
+        }
+    }
+
+    private <T> T shared(Supplier<T> query) {
+        if (lock == null || writer == Thread.currentThread()) return query.get();
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * For O(1) queries only: run without locking and keep the answer if no
+     * write happened meanwhile. A torn read may also throw; either way the
+     * query is repeated under the read lock.
+     */
+    private <T> T optimistic(Supplier<T> query) {
+        if (lock == null || writer == Thread.currentThread()) return query.get();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = query.get();
+                if (lock.validate(stamp)) return result;
+            } catch (RuntimeException e) {
+                // raced with a writer; retry below
+            }
+        }
+        return shared(query);
+    }
+
+    // live read-only view, or a copy when other threads may be writing
+    private List<Task> view(SortedTaskIndex index) {
+        if (lock == null) return index.asList();
+        return shared(() -> new ArrayList<>(index.asList()));
+    }
+
     // ACCESSORS
     public List<Task> getAllTasks() {
-        return new ArrayList<>(allTasks);
+        return shared(() -> new ArrayList<>(tasksById.values()));
+    }
+
+    /** The task with this id, or null. O(1). */
+    public Task getById(int id) {
+        return optimistic(() -> tasksById.get(id));
+    }
+
+    public boolean containsTask(Task task) {
+        return optimistic(() -> tasksById.contains(task));
     }
 
     public boolean canUndo() {
-        return !undoStack.isEmpty();
+        return optimistic(() -> !undoStack.isEmpty());
     }
 
-    public Task getNextRecommendedTask() {
-        List<Task> buffer = new ArrayList<>();
-        Task candidate = heap.extractMin();
+    public boolean canRedo() {
+        return optimistic(() -> !redoStack.isEmpty());
+    }
 
-        while (candidate != null &&
-              (candidate.getStatus() == TaskStatus.COMPLETED ||
-                !allTasks.contains(candidate))) {
-            buffer.add(candidate);
-            candidate = heap.extractMin();
-        }
+    public Task getNextRecommendedTask() {
+        return optimistic(() -> readyQueue.findMin());
+    }
 
-        for (Task t : buffer) heap.insert(t);
-        if (candidate != null) heap.insert(candidate);
+    /**
+     * The k best ready tasks in recommendation order. Reads the heap
+     * through its ordered iterator, so nothing is extracted or re-inserted.
+     */
+    public List<Task> getTopRecommendedTasks(int k) {
+        return shared(() -> readyQueue.peekTop(k));
+    }
 
-        return candidate;
+    /**
+     * Every open task in an order that respects dependencies, choosing by
+     * recommendation priority whenever several tasks are available.
+     */
+    public List<Task> getStudyOrder() {
+        return shared(() -> readyQueue.studyOrder());
     }
 
     // GRAPH FUNCTIONS
     public void addDependency(Task prerequisite, Task dependent) {
-        graph.addDependency(prerequisite, dependent);
+        exclusive(() -> {
+            requireManaged(prerequisite);
+            requireManaged(dependent);
+            graph.addDependency(prerequisite, dependent);
+            criticalPath.dependencyAdded(prerequisite, dependent);
+        });
+    }
+
+    /**
+     * Add many dependencies at once (e.g. an import). The batch is checked
+     * for cycles in one pass and rejected as a whole with a
+     * DependencyCycleException naming the cycles.
+     */
+    public void addDependencies(Collection<Dependency> batch) {
+        exclusive(() -> {
+            for (Dependency d : batch) {
+                requireManaged(d.getPrerequisite());
+                requireManaged(d.getDependent());
+            }
+            graph.addDependencies(batch);
+            criticalPath.invalidate();
+        });
+    }
+
+    /**
+     * Whether the task is still managed by this service. Write operations
+     * check this under the write lock: in concurrent mode another thread
+     * may have deleted the task since the caller looked it up, and editing
+     * it then would bring it back into the views and the graph.
+     */
+    private boolean isLive(Task task) {
+        return tasksById.contains(task);
     }
 
+    // the graph would quietly add a task it has not seen as a new vertex
+    private void requireManaged(Task task) {
+        if (!isLive(task)) {
+            throw new IllegalArgumentException("Task is not in this planner: " + task);
+        }
+    }
+
+    public boolean removeDependency(Task prerequisite, Task dependent) {
+        return exclusiveGet(() -> {
+            if (!graph.removeEdge(prerequisite, dependent)) return false;
+            criticalPath.dependencyRemoved(prerequisite, dependent);
+            return true;
+        });
+    }
+
+    // CRITICAL PATH (minutes of work from the planning start)
+
+    /** Longest chain of open tasks by estimated minutes, first task first. */
+    public List<Task> getCriticalPath() {
+        return exclusiveGet(() -> criticalPath.getCriticalPath());
+    }
+
+    public long getEarliestStart(Task task) {
+        return exclusiveGet(() -> criticalPath.getEarliestStart(task));
+    }
+
+    public long getLatestStart(Task task) {
+        return exclusiveGet(() -> criticalPath.getLatestStart(task));
+    }
+
+    /** Minutes a task can slip without delaying a due date or the project. */
+    public long getSlack(Task task) {
+        return exclusiveGet(() -> criticalPath.getSlack(task));
+    }
+
+    public long getProjectLength() {
+        return exclusiveGet(() -> criticalPath.getProjectLength());
+    }
+
+    public void setPlanningStart(LocalDate start) {
+        exclusive(() -> criticalPath.setProjectStart(start));
+    }
+
+    // O(1): the graph keeps a count of unfinished prerequisites per task
     public boolean isTaskUnlocked(Task task) {
-        Set<Task> completed = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.COMPLETED)
-                .collect(Collectors.toSet());
-        return graph.canStart(task, completed);
+        return optimistic(() -> graph.isUnlocked(task));
     }
 
     public List<Task> getPrerequisites(Task task) {
-        return graph.getPrerequisites(task);
+        return shared(() -> graph.getPrerequisites(task));
+    }
+
+    /** Every task that (transitively) waits for this one. */
+    public List<Task> getAllDependents(Task task) {
+        return exclusiveGet(() -> graph.getAllDependents(task));
+    }
+
+    /** Every task this one (transitively) waits for. */
+    public List<Task> getAllPrerequisites(Task task) {
+        return exclusiveGet(() -> graph.getAllPrerequisites(task));
     }
 
-    // SORTING WITH CUSTOM QUICKSORT
+    // SORTED VIEWS (read-only, kept up to date incrementally)
     public List<Task> getAllTasksSorted() {
-        List<Task> copy = new ArrayList<>(allTasks);
-        TaskSorter.quickSortTasks(copy);
-        return copy;
+        return view(byDefaultOrder);
     }
 
+    /**
+     * Reserve an id for a new task. Ids only move forward, so one freed by
+     * a delete is never handed out again (undo can still restore it).
+     */
     public int getNextId() {
-        return allTasks.size() + 1;
+        return exclusiveGet(() -> nextId++);
+    }
+
+    /** True if addTask() accepts this id (when no other task holds it). */
+    public static boolean isValidId(int id) {
+        return id >= 1 && id <= MAX_TASK_ID;
     }
     
     // SORT BY DUE DATE
     public List<Task> getTasksSortedByDueDate() {
-        List<Task> copy = new ArrayList<>(allTasks);
-        TaskSorter.sortByDueDate(copy);
-        return copy;
+        return view(byDueDate);
     }
 
     // SORT BY DIFFICULTY
     public List<Task> getTasksSortedByDifficulty() {
-        List<Task> copy = new ArrayList<>(allTasks);
-        TaskSorter.sortByDifficulty(copy);
-        return copy;
+        return view(byDifficulty);
+    }
+
+    // PAGING: the sorted views answer in O(log n + limit)
+    public List<Task> getAllTasksSorted(int offset, int limit) {
+        return shared(() -> byDefaultOrder.range(offset, limit));
+    }
+
+    public List<Task> getTasksSortedByDueDate(int offset, int limit) {
+        return shared(() -> byDueDate.range(offset, limit));
+    }
+
+    public List<Task> getTasksSortedByDifficulty(int offset, int limit) {
+        return shared(() -> byDifficulty.range(offset, limit));
+    }
+
+    /**
+     * One page of the tasks in any other order. Uses QuickSelect to find
+     * the page and sorts only that page: O(n + limit log limit).
+     */
+    public List<Task> getTasksSorted(Comparator<Task> comparator, int offset, int limit) {
+        return shared(() -> {
+            List<Task> copy = new ArrayList<>(tasksById.values());
+            sorter.sortPage(copy, comparator, offset, limit);
+            int from = Math.max(0, Math.min(offset, copy.size()));
+            int to = (int) Math.min(copy.size(), (long) from + Math.max(0, limit));
+            return new ArrayList<>(copy.subList(from, to));
+        });
     }
 
+
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import smarttime.service.TaskService;
 
 /**
  * Status bar shown at the bottom of the app.
- * Now includes an Undo button that uses our custom UndoStack via TaskService.
+ * Now includes Undo and Redo buttons that use our custom UndoStack via TaskService.
  */
 public class StatusBar extends HBox {
 
@@ -18,6 +18,7 @@ public class StatusBar extends HBox {
 
     private final Label statusLabel;
     private final Button undoButton;
+    private final Button redoButton;
 
     public StatusBar(TaskService taskService, Runnable onAfterUndo) {
         this.taskService = taskService;
@@ -35,7 +36,11 @@ public class StatusBar extends HBox {
         undoButton.setStyle("-fx-font-size: 11px;");
         undoButton.setOnAction(e -> handleUndo());
 
-        getChildren().addAll(statusLabel, undoButton);
+        redoButton = new Button("Redo");
+        redoButton.setStyle("-fx-font-size: 11px;");
+        redoButton.setOnAction(e -> handleRedo());
+
+        getChildren().addAll(statusLabel, undoButton, redoButton);
 
         updateUndoState();
     }
@@ -58,15 +63,35 @@ public class StatusBar extends HBox {
         updateUndoState();
     }
 
+    private void handleRedo() {
+        if (!taskService.canRedo()) {
+            setStatusText("Nothing to redo.");
+            updateUndoState();
+            return;
+        }
+
+        taskService.redoLastAction();
+
+        if (onAfterUndo != null) {
+            onAfterUndo.run();
+        }
+
+        setStatusText("Last undone action redone.");
+        updateUndoState();
+    }
+
     public void setStatusText(String text) {
         statusLabel.setText(text);
     }
 
     /**
-     * Enable/disable Undo button based on whether there is anything to undo.
+     * Enable/disable Undo and Redo buttons based on whether there is anything
+     * to undo or redo.
      */
     public void updateUndoState() {
         boolean canUndo = taskService != null && taskService.canUndo();
+        boolean canRedo = taskService != null && taskService.canRedo();
         undoButton.setDisable(!canUndo);
+        redoButton.setDisable(!canRedo);
     }
 }
\ No newline at end of file
@@ -250,7 +250,7 @@ public class TaskFormPane extends VBox {
         }
 
         if (editingTask == null) {
-            int id = taskService.getAllTasks().size() + 1; // simple ID
+            int id = taskService.getNextId();
             Task task = new Task(id, title, course, dueDate, minutes, difficulty);
             taskService.addTask(task);
 
@@ -13,12 +13,16 @@ import smarttime.service.TaskService;
 
 public class TodayOverviewPane extends VBox {
 
+    // how many upcoming tasks the "Up next" panel lists
+    private static final int UP_NEXT_COUNT = 20;
+
     private final TaskService taskService;
 
     private final Label todayLabel;
     private final Label completedLabel;
     private final Label pendingLabel;
     private final Label recommendedLabel;
+    private final Label upNextLabel;
 
     private final Label selectedTaskLabel;
     private final Label prerequisitesLabel;
@@ -43,10 +47,18 @@ public class TodayOverviewPane extends VBox {
         recommendedLabel.setWrapText(true);
         recommendedLabel.setMaxWidth(Double.MAX_VALUE);
 
+        Label upNextHeader = new Label("Up next");
+        upNextHeader.setStyle("-fx-font-weight: bold;");
+        upNextLabel = new Label();
+        upNextLabel.setWrapText(true);
+        upNextLabel.setMaxWidth(Double.MAX_VALUE);
+        upNextLabel.setStyle("-fx-font-size: 11px;");
+
         selectedTaskLabel = new Label("Selected task: (none)");
         prerequisitesLabel = new Label("Prerequisites: (none)");
 
-        getChildren().addAll(header, todayLabel, completedLabel, pendingLabel, recommendedLabel, selectedTaskLabel, prerequisitesLabel);
+        getChildren().addAll(header, todayLabel, completedLabel, pendingLabel, recommendedLabel,
+                upNextHeader, upNextLabel, selectedTaskLabel, prerequisitesLabel);
 
         refresh();
     }
@@ -87,6 +99,27 @@ public class TodayOverviewPane extends VBox {
             recommendedLabel.setText(fullText);
             recommendedLabel.setTooltip(new Tooltip(fullText));
         }
+
+        refreshUpNext();
+    }
+
+    private void refreshUpNext() {
+        List<Task> upNext = taskService.getTopRecommendedTasks(UP_NEXT_COUNT);
+        if (upNext.isEmpty()) {
+            upNextLabel.setText("(nothing left to do)");
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < upNext.size(); i++) {
+            Task t = upNext.get(i);
+            if (i > 0) sb.append('\n');
+            sb.append(i + 1).append(". ").append(t.getTitle());
+            if (t.getDueDate() != null) {
+                sb.append(" · due ").append(t.getDueDate().format(dateFormatter));
+            }
+        }
+        upNextLabel.setText(sb.toString());
     }
 
     public void setSelectedTask(Task task) {
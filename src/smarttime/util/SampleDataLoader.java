@@ -12,6 +12,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import smarttime.ds.DependencyCycleException;
+import smarttime.model.Dependency;
 import smarttime.model.Task;
 import smarttime.service.TaskService;
 
@@ -29,6 +31,9 @@ public class SampleDataLoader {
         Map<Integer, Task> idToTask = new HashMap<>();
         List<PendingDeps> pendingDeps = new ArrayList<>();
 
+        // one transaction: the heap is built once for the whole file, and
+        // the import is a single undo entry
+        taskService.beginTransaction();
         try (BufferedReader reader =
                      Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
 
@@ -45,7 +50,16 @@ public class SampleDataLoader {
                     continue;
                 }
 
-                int id = Integer.parseInt(parts[0].trim());
+                int id = parseId(parts[0]);
+                if (!TaskService.isValidId(id)) {
+                    System.err.println("Skipping task with an id outside 1.." + TaskService.MAX_TASK_ID
+                            + ": " + line);
+                    continue;
+                }
+                if (taskService.getById(id) != null) {
+                    System.err.println("Skipping duplicate task id: " + line);
+                    continue;
+                }
                 String title = parts[1].trim();
                 String course = parts[2].trim();
                 LocalDate dueDate = LocalDate.parse(parts[3].trim());
@@ -63,7 +77,8 @@ public class SampleDataLoader {
                     for (String s : prereqIds) {
                         s = s.trim();
                         if (!s.isEmpty()) {
-                            ids.add(Integer.parseInt(s));
+                            // an invalid prerequisite id matches no task and is dropped below
+                            ids.add(parseId(s));
                         }
                     }
                     pendingDeps.add(new PendingDeps(id, ids));
@@ -73,21 +88,95 @@ public class SampleDataLoader {
         } catch (IOException ex) {
             System.err.println("Failed to load tasks from " + file + ": " + ex.getMessage());
             return;
+        } finally {
+            taskService.commitTransaction();
         }
 
-        // Second pass: hook up prerequisites using IDs
+        // Second pass: hook up prerequisites using IDs, validated as one batch
+        List<Dependency> dependencies = new ArrayList<>();
         for (PendingDeps pd : pendingDeps) {
             Task target = idToTask.get(pd.taskId);
             if (target == null) continue;
             for (int prereqId : pd.prereqIds) {
                 Task prereq = idToTask.get(prereqId);
-                if (prereq != null) {
-                    taskService.addDependency(prereq, target);
+                if (prereq == target) {
+                    System.err.println("Skipping self-dependency of task " + pd.taskId + " in " + file);
+                } else if (prereq != null) {
+                    dependencies.add(new Dependency(prereq, target));
+                }
+            }
+        }
+        try {
+            addDependenciesSkippingCycles(taskService, dependencies, file);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Skipping dependencies from " + file + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Add the file's dependencies as one batch. Every cycle the batch
+     * would close is reported, the edge on it that comes last in the file
+     * (the line that closed it) is left out, and the rest is added again,
+     * so one bad line does not cost the whole file its dependencies.
+     */
+    private static void addDependenciesSkippingCycles(TaskService taskService,
+                                                      List<Dependency> dependencies, Path file) {
+        while (true) {
+            try {
+                taskService.addDependencies(dependencies);
+                return;
+            } catch (DependencyCycleException ex) {
+                Map<Long, Integer> lineOf = new HashMap<>();
+                for (int i = 0; i < dependencies.size(); i++) {
+                    Dependency d = dependencies.get(i);
+                    lineOf.put(edgeKey(d.getPrerequisite(), d.getDependent()), i);
                 }
+
+                boolean[] skip = new boolean[dependencies.size()];
+                for (List<Task> cycle : ex.getCycles()) {
+                    int last = -1;
+                    for (int i = 0; i < cycle.size(); i++) {
+                        Integer line = lineOf.get(edgeKey(cycle.get(i), cycle.get((i + 1) % cycle.size())));
+                        if (line != null) last = Math.max(last, line);
+                    }
+                    if (last < 0) throw ex; // not caused by this file's edges
+                    skip[last] = true;
+                    Dependency d = dependencies.get(last);
+                    System.err.println("Skipping dependency " + d.getPrerequisite().getTitle()
+                            + " -> " + d.getDependent().getTitle() + " from " + file
+                            + ": it closes the cycle " + describe(cycle));
+                }
+
+                List<Dependency> rest = new ArrayList<>(dependencies.size());
+                for (int i = 0; i < dependencies.size(); i++) {
+                    if (!skip[i]) rest.add(dependencies.get(i));
+                }
+                dependencies = rest;
             }
         }
     }
 
+    // a task id, or -1 (never a valid id) if the text is not an int
+    private static int parseId(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static long edgeKey(Task prerequisite, Task dependent) {
+        return ((long) prerequisite.getId() << 32) | (dependent.getId() & 0xFFFFFFFFL);
+    }
+
+    private static String describe(List<Task> cycle) {
+        StringBuilder sb = new StringBuilder();
+        for (Task task : cycle) {
+            sb.append(task.getTitle()).append(" -> ");
+        }
+        return sb.append(cycle.get(0).getTitle()).toString();
+    }
+
     /**
      * Helper to load tasks.txt from the classpath.
      * Expected path for tasks.txt: /smarttime/util/tasks.txt
@@ -0,0 +1,114 @@
+package smarttime.bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import smarttime.model.Dependency;
+import smarttime.model.Task;
+
+/**
+ * Shared helpers for the benchmark and check programs in this package.
+ * They are plain main() classes (no test framework); see the README for
+ * how to compile and run them.
+ */
+final class BenchSupport {
+
+    private BenchSupport() {
+    }
+
+    /**
+     * n tasks with ids 1..n, due dates spread over one year, difficulty
+     * 1-5 and 10-240 minutes. Every task gets its own LocalDate object, as
+     * tasks created one by one from user input would.
+     */
+    static List<Task> randomTasks(int n, long seed) {
+        Random random = new Random(seed);
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        List<Task> tasks = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            LocalDate due = LocalDate.ofEpochDay(start.toEpochDay() + random.nextInt(365));
+            tasks.add(new Task(i, "task " + (i % 1000), "course " + (i % 20), due,
+                    10 + random.nextInt(231), 1 + random.nextInt(5)));
+        }
+        return tasks;
+    }
+
+    /**
+     * count distinct edges between random task pairs, oriented along a
+     * hidden order so the graph stays acyclic. Unless shuffled, that order
+     * is the creation order and every edge points from older to newer.
+     */
+    static List<Dependency> randomDag(List<Task> tasks, int count, boolean shuffled, long seed) {
+        Random random = new Random(seed);
+        int n = tasks.size();
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) rank[i] = i;
+        if (shuffled) {
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = rank[i];
+                rank[i] = rank[j];
+                rank[j] = tmp;
+            }
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<Dependency> edges = new ArrayList<>(count);
+        while (edges.size() < count) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a == b) continue;
+            int from = rank[a] < rank[b] ? a : b;
+            int to = from == a ? b : a;
+            if (seen.add((long) from * n + to)) {
+                edges.add(new Dependency(tasks.get(from), tasks.get(to)));
+            }
+        }
+        return edges;
+    }
+
+    /** Wall time of one run in milliseconds. */
+    static double millis(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /** Fastest of several runs (after the first, which only warms up). */
+    static double bestMillis(int runs, Runnable work) {
+        work.run();
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            best = Math.min(best, millis(work));
+        }
+        return best;
+    }
+
+    /** Sizes from the command line, or the defaults. */
+    static int[] sizes(String[] args, int... defaults) {
+        if (args.length == 0) return defaults;
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i].replace("_", ""));
+        }
+        return sizes;
+    }
+
+    static long usedHeapBytes() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package smarttime.bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import smarttime.ds.DaryTaskHeap;
+import smarttime.ds.TaskGraph;
+import smarttime.ds.TaskSorter;
+import smarttime.model.Task;
+import smarttime.model.TaskStatus;
+import smarttime.service.TaskService;
+
+/**
+ * Several threads share one concurrent TaskService and mix reads with
+ * adds, deletes, edits, completions, dependencies, undo/redo and
+ * transactions. Every write is logged in the order it took effect; at the
+ * end the log is replayed on a fresh single-threaded service, and both
+ * must agree on the tasks, their fields and dependencies, every sorted
+ * view, the recommendations, the critical path and the whole undo
+ * history. The shared service must also be consistent on its own, every
+ * CHECK_EVERY writes and at the end: views sorted and complete,
+ * dependencies only between present tasks, and exactly the open,
+ * unlocked tasks recommended.
+ *
+ * Writes are numbered by holding the log's monitor around the service
+ * call, so they queue there rather than on the service's write lock. The
+ * task a write targets is still looked up beforehand without it, so
+ * writes regularly hit tasks another thread has deleted meanwhile. Reads
+ * are not logged and run against the writes freely.
+ *
+ *   java -cp out smarttime.bench.ConcurrentStressCheck [threads] [ops per thread]
+ */
+public class ConcurrentStressCheck {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final int INITIAL_TASKS = 500;
+    private static final int WRITE_PERCENT = 20;
+    private static final int HOT_TASKS = 32;
+    private static final int CHECK_EVERY = 500;
+
+    private enum Kind { ADD, COMPLETE, UPDATE, DELETE, DEPEND, UNDO, REDO, TRANSACTION }
+
+    /** One write as it was applied; tasks are named by id. */
+    private static final class Op {
+        final Kind kind;
+        final int task;      // target, or the id of the task being added
+        final int other;     // DEPEND: dependent; TRANSACTION: prerequisite of the new task (-1 = none)
+        final int third;     // TRANSACTION: task to complete (-1 = none)
+        final int day;       // ADD / UPDATE / TRANSACTION: new fields
+        final int minutes;
+        final int difficulty;
+        boolean accepted;    // DEPEND: was the dependency added?
+
+        Op(Kind kind, int task, int other, int third, Random random) {
+            this.kind = kind;
+            this.task = task;
+            this.other = other;
+            this.third = third;
+            this.day = random.nextInt(60);
+            this.minutes = 10 + random.nextInt(230);
+            this.difficulty = 1 + random.nextInt(5);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 20_000;
+
+        TaskService shared = new TaskService(new DaryTaskHeap(INITIAL_TASKS, 4), new TaskGraph(), true);
+        Map<Integer, Task> sharedTasks = new ConcurrentHashMap<>();
+        List<Op> log = new ArrayList<>();
+        AtomicInteger lastId = new AtomicInteger();
+        Random setup = new Random(1);
+        for (int i = 0; i < INITIAL_TASKS; i++) {
+            Op op = new Op(Kind.ADD, shared.getNextId(), -1, -1, setup);
+            op.accepted = apply(shared, sharedTasks, op);
+            log.add(op);
+            lastId.set(op.task);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int k = 0; k < threads; k++) {
+            long seed = 100 + k;
+            workers[k] = new Thread(() -> {
+                try {
+                    work(shared, sharedTasks, log, lastId, new Random(seed), opsPerThread);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "worker-" + k);
+            workers[k].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (failure.get() != null) {
+            failure.get().printStackTrace();
+            System.exit(1);
+        }
+
+        TaskService replay = new TaskService(new DaryTaskHeap(INITIAL_TASKS, 4), new TaskGraph());
+        Map<Integer, Task> replayTasks = new HashMap<>();
+        for (int i = 0; i < log.size(); i++) {
+            Op op = log.get(i);
+            BenchSupport.check(apply(replay, replayTasks, op) == op.accepted,
+                    "write " + i + " (" + op.kind + ") had a different outcome in the replay");
+        }
+        checkConsistent(shared, "after the run");
+        compare(snapshot(shared), snapshot(replay), "after the run");
+
+        // walk both undo histories back to the start of what they remember
+        int undone = 0;
+        while (shared.canUndo()) {
+            BenchSupport.check(replay.canUndo(), "replay has a shorter undo history");
+            shared.undoLastAction();
+            replay.undoLastAction();
+            undone++;
+        }
+        BenchSupport.check(!replay.canUndo(), "replay has a longer undo history");
+        checkConsistent(shared, "after undoing everything");
+        compare(snapshot(shared), snapshot(replay), "after undoing everything");
+
+        System.out.printf("ok: %d threads, %,d ops in %.1f s, %,d writes replayed, %,d undone, %,d tasks%n",
+                threads, (long) threads * opsPerThread, seconds, log.size(), undone,
+                shared.getAllTasks().size());
+    }
+
+    private static void work(TaskService s, Map<Integer, Task> tasks, List<Op> log,
+                             AtomicInteger lastId, Random random, int ops) {
+        for (int i = 0; i < ops; i++) {
+            if (random.nextInt(100) >= WRITE_PERCENT) {
+                read(s, random, lastId.get());
+                continue;
+            }
+            Op op = randomWrite(s, random, lastId.get());
+            if (op == null) continue;   // the task it picked is gone
+            // give other writers a chance to delete the target first
+            Thread.yield();
+            synchronized (log) {
+                op.accepted = apply(s, tasks, op);
+                log.add(op);
+                // no other write can start meanwhile, so the state holds still
+                if (log.size() % CHECK_EVERY == 0) checkConsistent(s, "after write " + log.size());
+            }
+            if (op.kind == Kind.ADD || op.kind == Kind.TRANSACTION) {
+                lastId.accumulateAndGet(op.task, Math::max);
+            }
+        }
+    }
+
+    private static void read(TaskService s, Random random, int lastId) {
+        switch (random.nextInt(6)) {
+            case 0:
+                s.getNextRecommendedTask();
+                break;
+            case 1:
+                s.getTopRecommendedTasks(10);
+                break;
+            case 2:
+                s.getAllTasksSorted(random.nextInt(lastId), 20);
+                break;
+            case 3:
+                Task t = s.getById(1 + random.nextInt(lastId));
+                if (t != null) {
+                    s.isTaskUnlocked(t);
+                    s.getPrerequisites(t);
+                }
+                break;
+            case 4:
+                s.getTasksSortedByDueDate();
+                break;
+            default:
+                s.getCriticalPath();
+        }
+    }
+
+    // a write against tasks that were present when it was picked, or null
+    private static Op randomWrite(TaskService s, Random random, int lastId) {
+        int roll = random.nextInt(100);
+        if (roll < 25) return new Op(Kind.ADD, s.getNextId(), -1, -1, random);
+        if (roll < 32) return new Op(Kind.UNDO, -1, -1, -1, random);
+        if (roll < 35) return new Op(Kind.REDO, -1, -1, -1, random);
+        if (roll < 45) {
+            return new Op(Kind.TRANSACTION, s.getNextId(), pick(s, random, lastId), pick(s, random, lastId), random);
+        }
+
+        int task = pick(s, random, lastId);
+        if (task < 0) return null;
+        if (roll < 55) return new Op(Kind.COMPLETE, task, -1, -1, random);
+        if (roll < 70) return new Op(Kind.UPDATE, task, -1, -1, random);
+        if (roll < 80) return new Op(Kind.DELETE, task, -1, -1, random);
+        int other = pick(s, random, lastId);
+        return other < 0 ? null : new Op(Kind.DEPEND, task, other, -1, random);
+    }
+
+    // id of a random task that is currently present, or -1; half of the
+    // picks go to the newest tasks, so threads often write the same ones
+    private static int pick(TaskService s, Random random, int lastId) {
+        int id = random.nextBoolean()
+                ? 1 + random.nextInt(lastId)
+                : Math.max(1, lastId - random.nextInt(HOT_TASKS));
+        return s.getById(id) != null ? id : -1;
+    }
+
+    private static boolean apply(TaskService s, Map<Integer, Task> tasks, Op op) {
+        switch (op.kind) {
+            case ADD:
+                s.addTask(newTask(tasks, op));
+                return true;
+            case COMPLETE:
+                s.markTaskCompleted(tasks.get(op.task));
+                return true;
+            case UPDATE:
+                s.updateTask(tasks.get(op.task), "edited " + op.minutes, "course " + op.difficulty,
+                        START.plusDays(op.day), op.minutes, op.difficulty);
+                return true;
+            case DELETE:
+                s.deleteTask(tasks.get(op.task));
+                return true;
+            case DEPEND:
+                return addDependency(s, tasks.get(op.task), tasks.get(op.other));
+            case UNDO:
+                s.undoLastAction();
+                return true;
+            case REDO:
+                s.redoLastAction();
+                return true;
+            default:
+                s.runInTransaction(() -> {
+                    Task fresh = newTask(tasks, op);
+                    s.addTask(fresh);
+                    if (op.other >= 0) addDependency(s, tasks.get(op.other), fresh);
+                    if (op.third >= 0) s.markTaskCompleted(tasks.get(op.third));
+                });
+                return true;
+        }
+    }
+
+    // refused when it would close a cycle or a task has been deleted
+    private static boolean addDependency(TaskService s, Task prerequisite, Task dependent) {
+        try {
+            s.addDependency(prerequisite, dependent);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Task newTask(Map<Integer, Task> tasks, Op op) {
+        Task t = new Task(op.task, "task " + op.task, "course " + op.difficulty,
+                START.plusDays(op.day), op.minutes, op.difficulty);
+        tasks.put(op.task, t);
+        return t;
+    }
+
+    private static void checkConsistent(TaskService s, String when) {
+        List<Task> all = s.getAllTasks();
+        checkView(s.getAllTasksSorted(), TaskSorter.DEFAULT_ORDER, all.size(), when);
+        checkView(s.getTasksSortedByDueDate(), TaskSorter.DUE_DATE_ORDER, all.size(), when);
+        checkView(s.getTasksSortedByDifficulty(), TaskSorter.DIFFICULTY_ORDER, all.size(), when);
+
+        Set<Task> ready = new HashSet<>();
+        for (Task t : all) {
+            for (Task p : s.getPrerequisites(t)) {
+                BenchSupport.check(s.getById(p.getId()) == p, when + ": dependency on a deleted task");
+            }
+            if (t.getStatus() != TaskStatus.COMPLETED && s.isTaskUnlocked(t)) ready.add(t);
+        }
+        List<Task> recommended = s.getTopRecommendedTasks(Integer.MAX_VALUE);
+        BenchSupport.check(recommended.size() == ready.size() && ready.containsAll(recommended),
+                when + ": recommendations are not exactly the open, unlocked tasks");
+    }
+
+    private static void checkView(List<Task> view, Comparator<Task> order, int size, String when) {
+        BenchSupport.check(view.size() == size, when + ": a sorted view lost or duplicated tasks");
+        for (int i = 1; i < view.size(); i++) {
+            BenchSupport.check(order.compare(view.get(i - 1), view.get(i)) <= 0, when + ": a view is out of order");
+        }
+    }
+
+    private static List<String> snapshot(TaskService s) {
+        List<String> lines = new ArrayList<>();
+        for (Task t : s.getAllTasks()) {
+            List<Task> prerequisites = new ArrayList<>(s.getPrerequisites(t));
+            prerequisites.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+            lines.add(t.getId() + " " + t.getTitle() + " / " + t.getCourse() + " " + t.getDueDate()
+                    + " " + t.getEstimatedMinutes() + "m d" + t.getDifficulty() + " " + t.getStatus()
+                    + " after " + ids(prerequisites));
+        }
+        lines.add("default order " + ids(s.getAllTasksSorted()));
+        lines.add("by due date " + ids(s.getTasksSortedByDueDate()));
+        lines.add("by difficulty " + ids(s.getTasksSortedByDifficulty()));
+        lines.add("recommended " + ids(s.getTopRecommendedTasks(Integer.MAX_VALUE)));
+        lines.add("study order " + ids(s.getStudyOrder()));
+        lines.add("critical path " + ids(s.getCriticalPath()) + ", " + s.getProjectLength() + " min");
+        lines.add("can undo " + s.canUndo() + ", can redo " + s.canRedo());
+        return lines;
+    }
+
+    private static String ids(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Task t : tasks) {
+            if (sb.length() > 1) sb.append(' ');
+            sb.append(t.getId());
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void compare(List<String> concurrent, List<String> sequential, String when) {
+        for (int i = 0; i < Math.min(concurrent.size(), sequential.size()); i++) {
+            BenchSupport.check(concurrent.get(i).equals(sequential.get(i)), when + ", concurrent: "
+                    + concurrent.get(i) + "\n  replay: " + sequential.get(i));
+        }
+        BenchSupport.check(concurrent.size() == sequential.size(), when + ": task counts differ");
+    }
+}
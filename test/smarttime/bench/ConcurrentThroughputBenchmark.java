@@ -0,0 +1,172 @@
+package smarttime.bench;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import smarttime.config.AppConfig;
+import smarttime.ds.DaryTaskHeap;
+import smarttime.ds.TaskGraph;
+import smarttime.model.Task;
+import smarttime.service.TaskService;
+
+/**
+ * Throughput of one TaskService shared by 16 threads doing 95% reads and
+ * 5% writes, in three set-ups:
+ *  - single thread: one thread, a plain (non-concurrent) service;
+ *  - synchronized: every call on a plain service inside one monitor,
+ *    the simplest thread-safe wrapper;
+ *  - stamped lock: the service's concurrent mode.
+ *
+ * Reads are O(1) lookups, recommendations and page reads of the sorted
+ * views; writes add, edit, complete, link, delete and undo tasks. With a
+ * single CPU the threads can only interleave, so the comparison shows
+ * the locking overhead rather than parallel speed-up.
+ *
+ *   java -cp out smarttime.bench.ConcurrentThroughputBenchmark [threads] [seconds]
+ */
+public class ConcurrentThroughputBenchmark {
+
+    private static final int TASKS = 20_000;
+    private static final int WRITE_PERCENT = 5;
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private enum Mode { SINGLE_THREAD, SYNCHRONIZED, STAMPED_LOCK }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 5;
+
+        System.out.printf("%14s %8s %14s %14s%n", "mode", "threads", "ops/s", "writes/s");
+        for (Mode mode : Mode.values()) {
+            int n = mode == Mode.SINGLE_THREAD ? 1 : threads;
+            TaskService s = newService(mode == Mode.STAMPED_LOCK);
+            Object monitor = mode == Mode.SYNCHRONIZED ? new Object() : null;
+            run(s, monitor, n, seconds);   // warm-up
+            long[] counts = run(s, monitor, n, seconds);
+            System.out.printf("%14s %8d %,14.0f %,14.0f%n", mode.name().toLowerCase().replace('_', ' '),
+                    n, counts[0] / seconds, counts[1] / seconds);
+        }
+    }
+
+    private static TaskService newService(boolean concurrent) {
+        TaskService s = new TaskService(new DaryTaskHeap(TASKS, AppConfig.HEAP_ARITY), new TaskGraph(), concurrent);
+        Random random = new Random(1);
+        s.beginBulkLoad();
+        for (int i = 0; i < TASKS; i++) {
+            s.addTask(randomTask(s.getNextId(), random));
+        }
+        for (int i = 0; i < TASKS; i++) {
+            Task a = s.getById(1 + random.nextInt(TASKS));
+            Task b = s.getById(1 + random.nextInt(TASKS));
+            if (a.getId() < b.getId()) s.addDependency(a, b);
+        }
+        s.endBulkLoad();
+        return s;
+    }
+
+    // {operations, writes} done by all threads together
+    private static long[] run(TaskService s, Object monitor, int threads, double seconds)
+            throws InterruptedException {
+        AtomicLong ops = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long end = System.nanoTime() + (long) (seconds * 1e9);
+        Thread[] workers = new Thread[threads];
+        for (int k = 0; k < threads; k++) {
+            Random random = new Random(10 + k);
+            workers[k] = new Thread(() -> {
+                long done = 0;
+                long written = 0;
+                try {
+                    while (System.nanoTime() < end) {
+                        for (int i = 0; i < 100; i++) {
+                            boolean write = random.nextInt(100) < WRITE_PERCENT;
+                            if (monitor == null) {
+                                step(s, random, write);
+                            } else {
+                                synchronized (monitor) {
+                                    step(s, random, write);
+                                }
+                            }
+                            if (write) written++;
+                        }
+                        done += 100;
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+                ops.addAndGet(done);
+                writes.addAndGet(written);
+            });
+            workers[k].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("worker failed", failure.get());
+        }
+        return new long[] {ops.get(), writes.get()};
+    }
+
+    private static void step(TaskService s, Random random, boolean write) {
+        int bound = TASKS + TASKS / 4;
+        Task t = s.getById(1 + random.nextInt(bound));
+        if (!write) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    s.getNextRecommendedTask();
+                    break;
+                case 1:
+                    if (t != null) s.isTaskUnlocked(t);
+                    break;
+                case 2:
+                    s.getAllTasksSorted(random.nextInt(TASKS), 20);
+                    break;
+                case 3:
+                    s.getTasksSortedByDueDate(random.nextInt(TASKS), 20);
+                    break;
+                default:
+                    s.getTopRecommendedTasks(5);
+            }
+            return;
+        }
+
+        switch (random.nextInt(6)) {
+            case 0:
+                s.addTask(randomTask(s.getNextId(), random));
+                break;
+            case 1:
+                if (t != null) s.markTaskCompleted(t);
+                break;
+            case 2:
+                if (t != null) {
+                    s.updateTask(t, t.getTitle(), t.getCourse(), START.plusDays(random.nextInt(365)),
+                            10 + random.nextInt(231), 1 + random.nextInt(5));
+                }
+                break;
+            case 3:
+                Task other = s.getById(1 + random.nextInt(bound));
+                if (t != null && other != null && t != other) {
+                    try {
+                        s.addDependency(t, other);
+                    } catch (IllegalArgumentException e) {
+                        // would close a cycle, or one of them was just deleted
+                    }
+                }
+                break;
+            case 4:
+                if (t != null) s.deleteTask(t);
+                break;
+            default:
+                s.undoLastAction();
+        }
+    }
+
+    private static Task randomTask(int id, Random random) {
+        return new Task(id, "task " + id, "course " + (id % 20), START.plusDays(random.nextInt(365)),
+                10 + random.nextInt(231), 1 + random.nextInt(5));
+    }
+}
@@ -0,0 +1,160 @@
+package smarttime.bench;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import smarttime.config.AppConfig;
+import smarttime.ds.CriticalPathAnalyzer;
+import smarttime.ds.TaskGraph;
+import smarttime.model.Dependency;
+import smarttime.model.Task;
+
+/**
+ * Time of a full CriticalPathAnalyzer recompute on a random DAG with two
+ * edges per task (edges oriented along a shuffled hidden order, so the
+ * topological order is not the creation order), and of single
+ * incremental updates afterwards.
+ *
+ * Recompute is invalidate() followed by getProjectLength(): one forward
+ * and one backward pass over the graph's topological order. Updates
+ * change a task's minutes or due date, or remove an edge and add it back,
+ * and then read that task's slack. After the recompute and again after
+ * all updates, earliest start, slack and the project length of every task
+ * must match a plain CPM pass (Kahn's algorithm over the graph), and the
+ * critical path must add up to the project length.
+ *
+ *   java -Xmx4g -cp out smarttime.bench.CriticalPathBenchmark [tasks...]
+ */
+public class CriticalPathBenchmark {
+
+    private static final int EDGES_PER_TASK = 2;
+    private static final int UPDATES = 1_000;
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final int MINUTES_PER_DAY = AppConfig.PLANNING_MINUTES_PER_DAY;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %10s %14s %16s%n", "tasks", "edges", "recompute ms", "update us (avg)");
+        for (int n : BenchSupport.sizes(args, 100_000, 1_000_000)) {
+            List<Task> tasks = BenchSupport.randomTasks(n, 12);
+            List<Dependency> dag = BenchSupport.randomDag(tasks, n * EDGES_PER_TASK, true, 13);
+            TaskGraph graph = new TaskGraph();
+            for (Task t : tasks) graph.addTask(t);
+            graph.addDependencies(dag);
+            graph.compact();
+
+            CriticalPathAnalyzer cpm = new CriticalPathAnalyzer(graph, START, MINUTES_PER_DAY);
+            double recompute = BenchSupport.bestMillis(5, () -> {
+                cpm.invalidate();
+                BenchSupport.check(cpm.getProjectLength() > 0, "empty schedule");
+            });
+            verify(graph, cpm, "after the recompute");
+
+            Random random = new Random(14);
+            double updates = BenchSupport.millis(() -> {
+                for (int i = 0; i < UPDATES; i++) {
+                    Task t = update(graph, cpm, tasks, dag, random);
+                    cpm.getSlack(t);
+                }
+            });
+            verify(graph, cpm, "after " + UPDATES + " updates");
+
+            System.out.printf("%,10d %,10d %14.1f %16.1f%n",
+                    n, dag.size(), recompute, updates * 1000 / UPDATES);
+        }
+    }
+
+    // one change, announced to the analyzer the way TaskService does; returns the task it touched
+    private static Task update(TaskGraph graph, CriticalPathAnalyzer cpm, List<Task> tasks,
+                               List<Dependency> dag, Random random) {
+        switch (random.nextInt(3)) {
+            case 0: {
+                Task t = tasks.get(random.nextInt(tasks.size()));
+                t.setEstimatedMinutes(10 + random.nextInt(231));
+                cpm.taskChanged(t);
+                return t;
+            }
+            case 1: {
+                Task t = tasks.get(random.nextInt(tasks.size()));
+                t.setDueDate(START.plusDays(random.nextInt(365)));
+                cpm.taskChanged(t);
+                return t;
+            }
+            default: {
+                Dependency d = dag.get(random.nextInt(dag.size()));
+                Task prerequisite = d.getPrerequisite();
+                Task dependent = d.getDependent();
+                if (graph.removeEdge(prerequisite, dependent)) {
+                    cpm.dependencyRemoved(prerequisite, dependent);
+                    cpm.getSlack(dependent);
+                    graph.addDependency(prerequisite, dependent);
+                    cpm.dependencyAdded(prerequisite, dependent);
+                }
+                return dependent;
+            }
+        }
+    }
+
+    // recompute everything with a textbook CPM pass and compare
+    private static void verify(TaskGraph graph, CriticalPathAnalyzer cpm, String when) {
+        int n = graph.vertexCount();
+        int[] order = kahnOrder(graph);
+        long[] duration = new long[n];
+        long[] es = new long[n];
+        long[] lf = new long[n];
+        long h = 0;
+        for (int v : order) {
+            duration[v] = graph.isBlocking(v) ? graph.taskAt(v).getEstimatedMinutes() : 0;
+        }
+        for (int v : order) {
+            for (int i = 0, deg = graph.inDegree(v); i < deg; i++) {
+                int u = graph.inNeighbor(v, i);
+                es[v] = Math.max(es[v], es[u] + duration[u]);
+            }
+            h = Math.max(h, es[v] + duration[v]);
+        }
+        for (int k = order.length - 1; k >= 0; k--) {
+            int v = order[k];
+            Task t = graph.taskAt(v);
+            long finish = h;
+            if (graph.isBlocking(v) && t.getDueDate() != null) {
+                finish = Math.min(finish, (t.getDueDate().toEpochDay() - START.toEpochDay() + 1) * MINUTES_PER_DAY);
+            }
+            for (int i = 0, deg = graph.outDegree(v); i < deg; i++) {
+                int w = graph.outNeighbor(v, i);
+                finish = Math.min(finish, lf[w] - duration[w]);
+            }
+            lf[v] = finish;
+        }
+
+        BenchSupport.check(cpm.getProjectLength() == h, when + ": wrong project length");
+        for (int v : order) {
+            Task t = graph.taskAt(v);
+            BenchSupport.check(cpm.getEarliestStart(t) == es[v], when + ": wrong earliest start");
+            BenchSupport.check(cpm.getSlack(t) == lf[v] - duration[v] - es[v], when + ": wrong slack");
+        }
+        long pathMinutes = 0;
+        for (Task t : cpm.getCriticalPath()) pathMinutes += t.getEstimatedMinutes();
+        BenchSupport.check(pathMinutes == h, when + ": critical path does not add up to the project length");
+    }
+
+    private static int[] kahnOrder(TaskGraph graph) {
+        int n = graph.vertexCount();
+        int[] remaining = new int[n];
+        int[] order = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            remaining[v] = graph.inDegree(v);
+            if (remaining[v] == 0) order[tail++] = v;
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            for (int i = 0, deg = graph.outDegree(u); i < deg; i++) {
+                int w = graph.outNeighbor(u, i);
+                if (--remaining[w] == 0) order[tail++] = w;
+            }
+        }
+        BenchSupport.check(tail == n, "graph has a cycle");
+        return order;
+    }
+}
@@ -0,0 +1,121 @@
+package smarttime.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import smarttime.ds.DependencyCycleException;
+import smarttime.ds.GraphTraversal;
+import smarttime.ds.TaskGraph;
+import smarttime.model.Dependency;
+import smarttime.model.Task;
+
+/**
+ * Every graph traversal must survive a prerequisite chain of a million
+ * tasks. The checks run on a thread with a 256 KB stack, far too small
+ * for a recursive walk of such a chain, so any traversal that recursed
+ * per vertex would fail here with StackOverflowError.
+ *
+ * Covered: iterative DFS (hasCycle, reaches, getAllDependents /
+ * getAllPrerequisites), Kahn's topological order, Tarjan's SCCs with
+ * cycle reporting, and the Pearce-Kelly reordering in addEdge.
+ *
+ *   java -Xmx2g -cp out smarttime.bench.DeepChainCheck [tasks]
+ */
+public class DeepChainCheck {
+
+    private static final long SMALL_STACK = 256 * 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 1_000_000;
+        Throwable[] failure = new Throwable[1];
+        Thread worker = new Thread(null, () -> {
+            try {
+                run(n);
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "deep-chain", SMALL_STACK);
+        worker.start();
+        worker.join();
+        if (failure[0] != null) {
+            failure[0].printStackTrace();
+            System.exit(1);
+        }
+        System.out.println("ok: " + n + "-task chains on a " + SMALL_STACK / 1024 + " KB stack");
+    }
+
+    private static void run(int n) {
+        List<Task> tasks = BenchSupport.randomTasks(n, 13);
+
+        // chain along creation order, one edge at a time (no reordering needed)
+        TaskGraph forward = new TaskGraph();
+        for (Task t : tasks) forward.addTask(t);
+        for (int i = 0; i + 1 < n; i++) {
+            forward.addDependency(tasks.get(i), tasks.get(i + 1));
+        }
+        checkChain(forward, tasks);
+
+        // chain against creation order, as one batch: Tarjan, then Kahn renumbers
+        TaskGraph backward = new TaskGraph();
+        for (Task t : tasks) backward.addTask(t);
+        List<Dependency> batch = new ArrayList<>(n);
+        for (int i = n - 1; i > 0; i--) {
+            batch.add(new Dependency(tasks.get(i), tasks.get(i - 1)));
+        }
+        backward.addDependencies(batch);
+        List<Task> reversed = new ArrayList<>(tasks);
+        Collections.reverse(reversed);
+        checkChain(backward, reversed);
+
+        // closing the chain must be refused by both insertion paths
+        Task head = reversed.get(0);
+        Task tail = reversed.get(n - 1);
+        try {
+            backward.addDependencies(List.of(new Dependency(tail, head)));
+            throw new AssertionError("batch closing the chain was accepted");
+        } catch (DependencyCycleException e) {
+            BenchSupport.check(e.getCycles().size() == 1 && e.getCycles().get(0).size() == n,
+                    "cycle report should name the whole chain");
+        }
+        try {
+            forward.addDependency(tasks.get(n - 1), tasks.get(0));
+            throw new AssertionError("edge closing the chain was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        checkChain(forward, tasks);
+
+        // one edge that forces Pearce-Kelly to reorder the whole chain
+        TaskGraph reorder = new TaskGraph();
+        for (Task t : tasks) reorder.addTask(t);
+        for (int i = 1; i + 1 < n; i++) {
+            reorder.addDependency(tasks.get(i), tasks.get(i + 1));
+        }
+        reorder.addDependency(tasks.get(n - 1), tasks.get(0));
+        List<Task> rotated = new ArrayList<>(tasks.subList(1, n));
+        rotated.add(tasks.get(0));
+        checkChain(reorder, rotated);
+    }
+
+    // chain lists the tasks from first prerequisite to last dependent
+    private static void checkChain(TaskGraph g, List<Task> chain) {
+        int n = chain.size();
+        BenchSupport.check(!g.hasCycle(), "chain reported as cyclic");
+
+        List<Task> order = g.topologicalOrder();
+        BenchSupport.check(order.equals(chain), "topological order is not the chain");
+
+        GraphTraversal traversal = g.traversal();
+        int[] component = new int[g.vertexCount()];
+        BenchSupport.check(traversal.stronglyConnectedComponents(component) == n,
+                "every task of a chain is its own component");
+
+        Task first = chain.get(0);
+        Task last = chain.get(n - 1);
+        BenchSupport.check(g.reaches(first, last), "first task does not reach the last");
+        BenchSupport.check(!g.reaches(last, first), "last task reaches the first");
+        BenchSupport.check(g.getAllDependents(first).size() == n - 1, "dependents of the head");
+        BenchSupport.check(g.getAllPrerequisites(last).size() == n - 1, "prerequisites of the tail");
+    }
+}
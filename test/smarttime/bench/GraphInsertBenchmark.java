@@ -0,0 +1,76 @@
+package smarttime.bench;
+
+import java.util.List;
+
+import smarttime.ds.TaskGraph;
+import smarttime.model.Dependency;
+import smarttime.model.Task;
+
+/**
+ * Inserting dependencies one at a time (incremental Pearce-Kelly order in
+ * TaskGraph.addDependency) against the original add-then-hasCycle graph,
+ * then 500k edges the new way.
+ *
+ * Edges join random task pairs and point along a hidden random order, so
+ * the graph stays acyclic but most edges arrive against the order the
+ * tasks were created in and force a reordering. "Creation order" edges
+ * always point from the older to the newer task, the cheap case.
+ *
+ *   java -Xss64m -cp out smarttime.bench.GraphInsertBenchmark [edges]
+ */
+public class GraphInsertBenchmark {
+
+    private static final int EDGES_PER_TASK = 5;
+
+    public static void main(String[] args) {
+        int edges = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 500_000;
+
+        // the original graph runs a full DFS per edge, so compare on a small graph
+        int small = 5_000;
+        List<Task> smallTasks = BenchSupport.randomTasks(small / EDGES_PER_TASK, 1);
+        List<Dependency> smallEdges = BenchSupport.randomDag(smallTasks, small, true, 2);
+        double legacy = BenchSupport.bestMillis(1, () -> {
+            LegacyTaskGraph g = new LegacyTaskGraph();
+            for (Task t : smallTasks) g.addTask(t);
+            for (Dependency d : smallEdges) g.addDependency(d.getPrerequisite(), d.getDependent());
+        });
+        double incremental = BenchSupport.bestMillis(5, () -> insertOneByOne(smallTasks, smallEdges));
+        System.out.printf("%,d edges, %,d tasks: add + hasCycle %.1f ms, incremental %.1f ms (%.0fx)%n",
+                small, smallTasks.size(), legacy, incremental, legacy / incremental);
+
+        List<Task> tasks = BenchSupport.randomTasks(edges / EDGES_PER_TASK, 3);
+        for (boolean shuffled : new boolean[] {false, true}) {
+            List<Dependency> dag = BenchSupport.randomDag(tasks, edges, shuffled, 4);
+            double oneByOne = BenchSupport.bestMillis(3, () -> insertOneByOne(tasks, dag));
+            double batch = BenchSupport.bestMillis(3, () -> insertBatch(tasks, dag));
+            System.out.printf("%,d edges, %,d tasks, %s: one by one %.1f ms (%.2f us/edge), batch %.1f ms%n",
+                    edges, tasks.size(), shuffled ? "shuffled order" : "creation order",
+                    oneByOne, oneByOne * 1e3 / edges, batch);
+        }
+    }
+
+    private static TaskGraph insertOneByOne(List<Task> tasks, List<Dependency> edges) {
+        TaskGraph g = new TaskGraph();
+        for (Task t : tasks) g.addTask(t);
+        for (Dependency d : edges) g.addDependency(d.getPrerequisite(), d.getDependent());
+        verify(g, edges);
+        return g;
+    }
+
+    private static TaskGraph insertBatch(List<Task> tasks, List<Dependency> edges) {
+        TaskGraph g = new TaskGraph();
+        for (Task t : tasks) g.addTask(t);
+        g.addDependencies(edges);
+        verify(g, edges);
+        return g;
+    }
+
+    private static void verify(TaskGraph g, List<Dependency> edges) {
+        BenchSupport.check(g.edgeCount() == edges.size(), "edges lost");
+        for (Dependency d : edges) {
+            int from = g.topoIndexOf(g.idOf(d.getPrerequisite()));
+            int to = g.topoIndexOf(g.idOf(d.getDependent()));
+            BenchSupport.check(from < to, "topological order violated");
+        }
+    }
+}
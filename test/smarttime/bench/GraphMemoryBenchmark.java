@@ -0,0 +1,116 @@
+package smarttime.bench;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import smarttime.ds.TaskGraph;
+import smarttime.model.Dependency;
+import smarttime.model.Task;
+
+/**
+ * Heap footprint and traversal speed of the CSR TaskGraph against the
+ * original adjacency-map graph (LegacyTaskGraph) on the same random DAG,
+ * five edges per task.
+ *
+ * Footprint is the growth of the used heap after a full GC while the
+ * graph is alive; the tasks and the edge list are allocated beforehand
+ * and not counted. Traversals: a cycle check over the whole graph, a scan
+ * of every dependent list, and the transitive dependents of 200 random
+ * tasks. The legacy cycle check recurses once per path step, hence -Xss.
+ *
+ *   java -Xss64m -Xmx4g -cp out smarttime.bench.GraphMemoryBenchmark [edges...]
+ */
+public class GraphMemoryBenchmark {
+
+    private static final int EDGES_PER_TASK = 5;
+    private static final int SOURCES = 200;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %8s %14s %14s %14s %14s%n",
+                "edges", "graph", "bytes/edge", "hasCycle ms", "edge scan ms", "dependents ms");
+        for (int edges : BenchSupport.sizes(args, 100_000, 500_000, 1_000_000)) {
+            List<Task> tasks = BenchSupport.randomTasks(edges / EDGES_PER_TASK, 5);
+            List<Dependency> dag = BenchSupport.randomDag(tasks, edges, true, 6);
+            Random random = new Random(8);
+            Task[] sources = new Task[SOURCES];
+            for (int i = 0; i < SOURCES; i++) sources[i] = tasks.get(random.nextInt(tasks.size()));
+            long legacyDependents = runLegacy(edges, tasks, dag, sources);
+            long csrDependents = runCsr(edges, tasks, dag, sources);
+            BenchSupport.check(legacyDependents == csrDependents, "graphs disagree on dependents");
+        }
+    }
+
+    // each graph is built and measured in its own method so that it is
+    // garbage before the next one is measured
+    private static long runLegacy(int edges, List<Task> tasks, List<Dependency> dag, Task[] sources) {
+        long before = BenchSupport.usedHeapBytes();
+        LegacyTaskGraph legacy = new LegacyTaskGraph();
+        for (Task t : tasks) legacy.addTask(t);
+        for (Dependency d : dag) legacy.addEdgeUnchecked(d.getPrerequisite(), d.getDependent());
+        long bytes = BenchSupport.usedHeapBytes() - before;
+        double cycle = BenchSupport.bestMillis(5, () ->
+                BenchSupport.check(!legacy.hasCycle(), "legacy graph reported a cycle"));
+        double scan = BenchSupport.bestMillis(5, () -> {
+            long sum = 0;
+            for (Task t : tasks) {
+                for (Task nb : legacy.getNeighbors(t)) sum += nb.getId();
+            }
+            BenchSupport.check(sum > 0, "no edges scanned");
+        });
+        long[] total = new long[1];
+        double reach = BenchSupport.bestMillis(5, () -> {
+            total[0] = 0;
+            for (Task s : sources) total[0] += legacyDependents(legacy, s);
+        });
+        print(edges, "maps", bytes, cycle, scan, reach);
+        return total[0];
+    }
+
+    private static long runCsr(int edges, List<Task> tasks, List<Dependency> dag, Task[] sources) {
+        long before = BenchSupport.usedHeapBytes();
+        TaskGraph csr = new TaskGraph();
+        for (Task t : tasks) csr.addTask(t);
+        csr.addDependencies(dag);
+        csr.compact();
+        long bytes = BenchSupport.usedHeapBytes() - before;
+        double cycle = BenchSupport.bestMillis(5, () ->
+                BenchSupport.check(!csr.hasCycle(), "CSR graph reported a cycle"));
+        double scan = BenchSupport.bestMillis(5, () -> {
+            long sum = 0;
+            for (int v = 0; v < csr.vertexCount(); v++) {
+                for (int i = 0, deg = csr.outDegree(v); i < deg; i++) {
+                    sum += csr.taskAt(csr.outNeighbor(v, i)).getId();
+                }
+            }
+            BenchSupport.check(sum > 0, "no edges scanned");
+        });
+        long[] total = new long[1];
+        double reach = BenchSupport.bestMillis(5, () -> {
+            total[0] = 0;
+            for (Task s : sources) total[0] += csr.getAllDependents(s).size();
+        });
+        print(edges, "CSR", bytes, cycle, scan, reach);
+        return total[0];
+    }
+
+    // transitive dependents the way the original graph had to find them
+    private static int legacyDependents(LegacyTaskGraph g, Task start) {
+        Set<Task> seen = new HashSet<>();
+        ArrayDeque<Task> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            for (Task nb : g.getNeighbors(queue.poll())) {
+                if (seen.add(nb)) queue.add(nb);
+            }
+        }
+        return seen.size();
+    }
+
+    private static void print(int edges, String graph, long bytes, double cycle, double scan, double reach) {
+        System.out.printf("%,10d %8s %14.1f %14.1f %14.1f %14.1f%n",
+                edges, graph, (double) bytes / edges, cycle, scan, reach);
+    }
+}
@@ -0,0 +1,54 @@
+package smarttime.bench;
+
+import java.util.List;
+import java.util.Random;
+
+import smarttime.ds.DaryTaskHeap;
+import smarttime.model.Task;
+
+/**
+ * Insert, update and extractMin throughput of DaryTaskHeap for several
+ * arities, the numbers behind AppConfig.HEAP_ARITY. "Update" removes a
+ * random queued task and inserts it again, which is what an edit or a
+ * completion costs the ready queue.
+ *
+ *   java -Xmx4g -cp out smarttime.bench.HeapArityBenchmark [sizes...]
+ */
+public class HeapArityBenchmark {
+
+    private static final int[] ARITIES = {2, 3, 4, 8, 16};
+
+    public static void main(String[] args) {
+        System.out.printf("%12s %6s %14s %14s %14s%n",
+                "tasks", "arity", "insert Mops/s", "update Mops/s", "extract Mops/s");
+        for (int n : BenchSupport.sizes(args, 10_000, 100_000, 1_000_000, 5_000_000)) {
+            List<Task> tasks = BenchSupport.randomTasks(n, 7);
+            int runs = n >= 1_000_000 ? 3 : 20;
+            Task[] updated = new Task[n];
+            Random random = new Random(11);
+            for (int i = 0; i < n; i++) updated[i] = tasks.get(random.nextInt(n));
+            for (int arity : ARITIES) {
+                double[] insert = {Double.MAX_VALUE};
+                double[] update = {Double.MAX_VALUE};
+                double[] extract = {Double.MAX_VALUE};
+                BenchSupport.bestMillis(runs, () -> {
+                    DaryTaskHeap heap = new DaryTaskHeap(n, arity);
+                    insert[0] = Math.min(insert[0], BenchSupport.millis(() -> {
+                        for (Task t : tasks) heap.insert(t);
+                    }));
+                    update[0] = Math.min(update[0], BenchSupport.millis(() -> {
+                        for (Task t : updated) {
+                            heap.remove(t);
+                            heap.insert(t);
+                        }
+                    }));
+                    extract[0] = Math.min(extract[0], BenchSupport.millis(() -> {
+                        while (!heap.isEmpty()) heap.extractMin();
+                    }));
+                });
+                System.out.printf("%,12d %6d %14.2f %14.2f %14.2f%n", n, arity,
+                        n / insert[0] / 1e3, n / update[0] / 1e3, n / extract[0] / 1e3);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package smarttime.bench;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import smarttime.ds.DaryTaskHeap;
+import smarttime.ds.TaskKeys;
+import smarttime.model.Task;
+
+/**
+ * Packed long keys (DaryTaskHeap) against the original comparator heap:
+ * insert n tasks, then extract them all, at 10k, 1M and 10M tasks.
+ *
+ * Both heaps are binary and keep the same int[] slot index; the only
+ * difference is how two entries are compared. The baseline calls three
+ * getters and LocalDate.compareTo per comparison, as TaskMinHeap did
+ * before the packed keys.
+ *
+ *   java -Xmx4g -cp out smarttime.bench.HeapKeyBenchmark [sizes...]
+ */
+public class HeapKeyBenchmark {
+
+    public static void main(String[] args) {
+        System.out.printf("%12s %16s %16s %8s%n", "tasks", "comparator ms", "packed keys ms", "speedup");
+        for (int n : BenchSupport.sizes(args, 10_000, 1_000_000, 10_000_000)) {
+            List<Task> tasks = BenchSupport.randomTasks(n, 42);
+            int runs = n >= 1_000_000 ? 3 : 20;
+
+            double comparator = BenchSupport.bestMillis(runs, () -> drain(new ComparatorHeap(n), tasks));
+            double packed = BenchSupport.bestMillis(runs, () -> drain(new DaryTaskHeap(n, 2), tasks));
+            System.out.printf("%,12d %16.1f %16.1f %7.2fx%n", n, comparator, packed, comparator / packed);
+        }
+    }
+
+    private static void drain(DaryTaskHeap heap, List<Task> tasks) {
+        for (Task t : tasks) heap.insert(t);
+        long previous = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            long key = TaskKeys.pack(heap.extractMin());
+            BenchSupport.check(key >= previous, "packed heap out of order");
+            previous = key;
+        }
+    }
+
+    private static void drain(ComparatorHeap heap, List<Task> tasks) {
+        for (Task t : tasks) heap.insert(t);
+        long previous = Long.MIN_VALUE;
+        while (heap.size > 0) {
+            long key = TaskKeys.pack(heap.extractMin());
+            BenchSupport.check(key >= previous, "comparator heap out of order");
+            previous = key;
+        }
+    }
+
+    /** The pre-packed-key binary heap, reduced to insert / extractMin. */
+    private static final class ComparatorHeap {
+        private final Task[] heap;
+        private final int[] slotById;
+        private int size;
+
+        ComparatorHeap(int n) {
+            heap = new Task[n];
+            slotById = new int[n + 1];
+        }
+
+        void insert(Task task) {
+            heap[size] = task;
+            slotById[task.getId()] = size + 1;
+            int i = size++;
+            while (i > 0) {
+                int p = (i - 1) / 2;
+                if (compare(heap[i], heap[p]) >= 0) break;
+                swap(i, p);
+                i = p;
+            }
+        }
+
+        Task extractMin() {
+            Task min = heap[0];
+            slotById[min.getId()] = 0;
+            heap[0] = heap[--size];
+            heap[size] = null;
+            if (size > 0) slotById[heap[0].getId()] = 1;
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1;
+                int r = l + 1;
+                int smallest = i;
+                if (l < size && compare(heap[l], heap[smallest]) < 0) smallest = l;
+                if (r < size && compare(heap[r], heap[smallest]) < 0) smallest = r;
+                if (smallest == i) break;
+                swap(i, smallest);
+                i = smallest;
+            }
+            return min;
+        }
+
+        private void swap(int i, int j) {
+            Task tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+            slotById[heap[i].getId()] = i + 1;
+            slotById[heap[j].getId()] = j + 1;
+        }
+
+        private static int compare(Task a, Task b) {
+            LocalDate da = a.getDueDate();
+            LocalDate db = b.getDueDate();
+            int cmp = da.compareTo(db);
+            if (cmp != 0) return cmp;
+            cmp = Integer.compare(a.getDifficulty(), b.getDifficulty());
+            if (cmp != 0) return cmp;
+            return Integer.compare(a.getEstimatedMinutes(), b.getEstimatedMinutes());
+        }
+    }
+}
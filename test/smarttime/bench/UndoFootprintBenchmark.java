@@ -0,0 +1,188 @@
+package smarttime.bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import smarttime.ds.UndoStack;
+import smarttime.model.Task;
+import smarttime.model.TaskFieldEdit;
+import smarttime.model.TaskStatus;
+import smarttime.model.UndoAction;
+import smarttime.model.UndoAction.ActionType;
+
+/**
+ * Heap retained by an undo history of 1M edits, in three formats:
+ *  - snapshot: the original UndoAction, a full Task copy per edit;
+ *  - field records: UndoAction objects with a TaskFieldEdit chain;
+ *  - packed: the same actions through UndoStack's codec, as TaskService
+ *    keeps them, where single-field edits become one long.
+ *
+ * Edits go round-robin over 1,000 tasks. "single field" changes one of
+ * minutes, difficulty, due date or status per edit; "with titles"
+ * renames the task in every tenth edit instead, which no format can
+ * store without the new String. The history is sized to hold every edit.
+ * Afterwards each history is undone completely and every task must be
+ * back to its starting values.
+ *
+ *   java -Xmx4g -cp out smarttime.bench.UndoFootprintBenchmark [edits]
+ */
+public class UndoFootprintBenchmark {
+
+    private static final int TASKS = 1_000;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private enum Format { SNAPSHOT, FIELD_RECORDS, PACKED }
+
+    public static void main(String[] args) {
+        int edits = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 1_000_000;
+        System.out.printf("%14s %16s %12s%n", "workload", "format", "bytes/edit");
+        for (int titleEvery : new int[] {0, 10}) {
+            for (Format format : Format.values()) {
+                double perEdit = measure(format, edits, titleEvery);
+                System.out.printf("%14s %16s %12.1f%n", titleEvery == 0 ? "single field" : "with titles",
+                        format.name().toLowerCase().replace('_', ' '), perEdit);
+            }
+        }
+    }
+
+    private static double measure(Format format, int edits, int titleEvery) {
+        List<Task> tasks = BenchSupport.randomTasks(TASKS, 9);
+        List<String> start = new ArrayList<>();
+        for (Task t : tasks) start.add(describe(t));
+        Random random = new Random(10);
+
+        long before = BenchSupport.usedHeapBytes();
+        UndoStack<Object> history = newHistory(format, edits, tasks);
+        for (int i = 0; i < edits; i++) {
+            Task task = tasks.get(i % TASKS);
+            Object entry;
+            NewValues values = nextEdit(task, i, titleEvery, random);
+            if (format == Format.SNAPSHOT) {
+                entry = new SnapshotAction(task);
+                values.applyTo(task);
+            } else if (values.status != task.getStatus()) {
+                TaskFieldEdit edit = TaskFieldEdit.status(task.getStatus(), values.status);
+                TaskFieldEdit.applyAll(edit, task);
+                entry = new UndoAction(ActionType.UPDATE_STATUS, task, edit);
+            } else {
+                TaskFieldEdit edit = TaskFieldEdit.diff(task, values.title, task.getCourse(),
+                        values.dueDate, values.minutes, values.difficulty);
+                TaskFieldEdit.applyAll(edit, task);
+                entry = new UndoAction(ActionType.UPDATE_TASK_DETAILS, task, edit);
+            }
+            history.push(entry);
+        }
+        long bytes = BenchSupport.usedHeapBytes() - before;
+        BenchSupport.check(history.size() == edits, "history dropped entries");
+
+        while (!history.isEmpty()) {
+            Object entry = history.pop();
+            if (entry instanceof SnapshotAction) {
+                ((SnapshotAction) entry).revert();
+            } else {
+                UndoAction action = (UndoAction) entry;
+                TaskFieldEdit.revertAll(action.getEdits(), action.getTask());
+            }
+        }
+        for (int i = 0; i < TASKS; i++) {
+            BenchSupport.check(describe(tasks.get(i)).equals(start.get(i)), format + ": undo did not restore a task");
+        }
+        return (double) bytes / edits;
+    }
+
+    private static UndoStack<Object> newHistory(Format format, int edits, List<Task> tasks) {
+        if (format != Format.PACKED) {
+            return new UndoStack<>(edits, Long.MAX_VALUE, entry -> 0);
+        }
+        return new UndoStack<>(edits, Long.MAX_VALUE, entry -> 0, new UndoStack.Codec<>() {
+            @Override
+            public long pack(Object entry) {
+                return ((UndoAction) entry).pack();
+            }
+
+            @Override
+            public Object unpack(long code) {
+                return UndoAction.unpack(code, id -> tasks.get(id - 1));
+            }
+        });
+    }
+
+    // the new field values of edit i; exactly one field changes
+    private static NewValues nextEdit(Task task, int i, int titleEvery, Random random) {
+        NewValues v = new NewValues(task);
+        if (titleEvery > 0 && i % titleEvery == 0) {
+            v.title = "renamed " + i;
+        } else if (i % 4 == 0) {
+            v.minutes += 1 + random.nextInt(30);
+        } else if (i % 4 == 1) {
+            v.difficulty = v.difficulty % 5 + 1;
+        } else if (i % 4 == 2) {
+            v.dueDate = v.dueDate.plusDays(1 + random.nextInt(30));
+        } else {
+            v.status = STATUSES[(task.getStatus().ordinal() + 1) % STATUSES.length];
+        }
+        return v;
+    }
+
+    private static String describe(Task t) {
+        return t.getTitle() + "|" + t.getCourse() + "|" + t.getDueDate() + "|"
+                + t.getEstimatedMinutes() + "|" + t.getDifficulty() + "|" + t.getStatus();
+    }
+
+    private static final class NewValues {
+        String title;
+        LocalDate dueDate;
+        int minutes;
+        int difficulty;
+        TaskStatus status;
+
+        NewValues(Task task) {
+            title = task.getTitle();
+            dueDate = task.getDueDate();
+            minutes = task.getEstimatedMinutes();
+            difficulty = task.getDifficulty();
+            status = task.getStatus();
+        }
+
+        void applyTo(Task task) {
+            task.setTitle(title);
+            task.setDueDate(dueDate);
+            task.setEstimatedMinutes(minutes);
+            task.setDifficulty(difficulty);
+            task.setStatus(status);
+        }
+    }
+
+    /**
+     * The original undo record: the task plus a full copy taken before the
+     * edit. It keeps all four fields of the old class, so it has its size.
+     */
+    private static final class SnapshotAction {
+        private final ActionType type;
+        private final Task task;
+        private final TaskStatus previousStatus;
+        private final Task snapshot;
+
+        SnapshotAction(Task task) {
+            this.type = ActionType.UPDATE_TASK_DETAILS;
+            this.task = task;
+            this.previousStatus = null;
+            this.snapshot = new Task(task.getId(), task.getTitle(), task.getCourse(),
+                    task.getDueDate(), task.getEstimatedMinutes(), task.getDifficulty());
+            this.snapshot.setStatus(task.getStatus());
+        }
+
+        void revert() {
+            BenchSupport.check(type == ActionType.UPDATE_TASK_DETAILS && previousStatus == null,
+                    "not a snapshot edit");
+            task.setTitle(snapshot.getTitle());
+            task.setCourse(snapshot.getCourse());
+            task.setDueDate(snapshot.getDueDate());
+            task.setEstimatedMinutes(snapshot.getEstimatedMinutes());
+            task.setDifficulty(snapshot.getDifficulty());
+            task.setStatus(snapshot.getStatus());
+        }
+    }
+}